@@ -1,48 +1,120 @@
 package ru.practicum.shareit.booking;
 
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientMode;
+import ru.practicum.shareit.client.GatewayResponseCache;
 
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
 import java.util.Map;
 
+@Slf4j
 @Service
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
+    private final ClientHttpRequestFactory requestFactory;
+
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX)).requestFactory(() -> new HttpComponentsClientHttpRequestFactory()).build());
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder, ClientHttpRequestFactory serverRequestFactory, WebClient.Builder webClientBuilder, @Value("${shareit.gateway.client.mode:blocking}") ClientMode mode,
+                         @Value("${shareit.gateway.client.passthrough:true}") boolean passthrough, GatewayResponseCache responseCache) {
+        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX)).requestFactory(() -> serverRequestFactory).build(),
+                webClientBuilder.uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX)).build(), mode, passthrough, responseCache, API_PREFIX);
+        this.requestFactory = serverRequestFactory;
     }
 
-    public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<Object>> getBookings(long userId, BookingState state, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of("state", state.name(), "from", from, "size", size);
         return get("?state={state}&from={from}&size={size}", userId, parameters);
     }
 
+    public Mono<ResponseEntity<Object>> getBookingsAfterCursor(long userId, BookingState state, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of("state", state.name(), "cursor", cursor, "size", size);
+        return get("?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
 
-    public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> updateBooking(long userId, Long bookingId, Boolean approved) {
+    public Mono<ResponseEntity<Object>> updateBooking(long userId, Long bookingId, Boolean approved) {
         String path = "/" + bookingId + "?approved=" + approved;
         return patch(path, userId, null, null);
     }
 
-    public ResponseEntity<Object> getBookingsWithState(String path, long userId, BookingState state) {
+    public Mono<ResponseEntity<Object>> getBookingsWithState(String path, long userId, BookingState state) {
         Map<String, Object> parameters = Map.of("state", state.name());
         return get(path + "?state={state}", userId, parameters);
     }
+
+    public Mono<ResponseEntity<Object>> getBookingsWithState(String path, long userId, BookingState state, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of("state", state.name(), "from", from, "size", size);
+        return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getBookingsWithStateAfterCursor(String path, long userId, BookingState state, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of("state", state.name(), "cursor", cursor, "size", size);
+        return get(path + "?state={state}&cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    /**
+     * Ответ сервера открывается до ответа шлюза: ошибка сервера уходит клиенту со своим статусом и телом,
+     * а не обрывает поток, у которого уже отправлен 200. Тело 2xx копируется в клиента без буферизации.
+     */
+    public ResponseEntity<StreamingResponseBody> streamBookingsWithState(String path, long userId, BookingState state) {
+        URI uri = rest.getUriTemplateHandler().expand(path + "?state={state}", Map.of("state", state.name()));
+        ClientHttpResponse response;
+        try {
+            ClientHttpRequest request = requestFactory.createRequest(uri, HttpMethod.GET);
+            request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+            request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+            response = request.execute();
+        } catch (IOException e) {
+            log.error("Не удалось открыть поток бронирований сервера", e);
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Сервер недоступен", e);
+        }
+        try {
+            if (response.getStatusCode().isError()) {
+                try (response) {
+                    byte[] errorBody = StreamUtils.copyToByteArray(response.getBody());
+                    return ResponseEntity.status(response.getStatusCode()).contentType(MediaType.APPLICATION_JSON).body(out -> out.write(errorBody));
+                }
+            }
+        } catch (IOException e) {
+            log.error("Не удалось прочитать ответ сервера на выгрузку бронирований", e);
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Сервер недоступен", e);
+        }
+        StreamingResponseBody body = out -> {
+            try (response) {
+                StreamUtils.copy(response.getBody(), out);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 }
@@ -0,0 +1,172 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Проксирует SSE-поток /bookings/events сервера. Ни StreamingResponseBody, ни общий RestTemplate для этого
+ * не годятся: первый выполняется на applicationTaskExecutor Spring Boot (8 потоков, очередь без границ),
+ * второй работает на общем пуле коротких запросов с таймаутом ответа, а закрытие ответа через RestTemplate
+ * дочитывает тело до конца, что для бесконечного потока означает зависание. Поэтому у прокси свой HttpClient с пулом
+ * на max-streams соединений и свои потоки-ретрансляторы, по одному на поток (виртуальные при
+ * spring.threads.virtual.enabled=true); сверх max-streams подписка отклоняется с 503. Разрыв клиента
+ * обнаруживается на ближайшей записи (сервер шлёт пульс), после чего соединение с сервером закрывается
+ * без дочитывания.
+ */
+@Slf4j
+@Component
+public class BookingEventsProxy {
+    private static final String EVENTS_PATH = "/bookings/events";
+    private static final int CHUNK_SIZE = 8192;
+
+    private final URI eventsUri;
+    private final HttpHost server;
+    private final Duration timeout;
+    private final Semaphore streams;
+    private final CloseableHttpClient httpClient;
+    private final ExecutorService relays;
+    private final Counter rejected;
+
+    public BookingEventsProxy(@Value("${shareit-server.url}") String serverUrl,
+                              @Value("${shareit.gateway.booking-events.max-streams:200}") int maxStreams,
+                              @Value("${shareit.gateway.booking-events.timeout:PT30M}") Duration timeout,
+                              @Value("${shareit.gateway.booking-events.connect-timeout:PT5S}") Duration connectTimeout,
+                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                              MeterRegistry meterRegistry) {
+        this.eventsUri = URI.create(serverUrl + EVENTS_PATH);
+        this.server = HttpHost.create(eventsUri);
+        this.timeout = timeout;
+        this.streams = new Semaphore(maxStreams);
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnTotal(maxStreams)
+                        .setMaxConnPerRoute(maxStreams)
+                        .setDefaultConnectionConfig(ConnectionConfig.custom().setConnectTimeout(Timeout.of(connectTimeout)).build())
+                        .build())
+                .disableAutomaticRetries()
+                .build();
+        this.relays = Executors.newCachedThreadPool(virtualThreads
+                ? Thread.ofVirtual().name("booking-events-relay-", 0).factory()
+                : Thread.ofPlatform().name("booking-events-relay-", 0).daemon().factory());
+        this.rejected = Counter.builder("shareit.gateway.booking-events.rejected").register(meterRegistry);
+        Gauge.builder("shareit.gateway.booking-events.streams", streams, s -> maxStreams - s.availablePermits()).register(meterRegistry);
+    }
+
+    public ResponseEntity<ResponseBodyEmitter> open(long userId) {
+        if (!streams.tryAcquire()) {
+            rejected.increment();
+            log.warn("Достигнут предел потоков событий бронирований, подписка пользователя ID: {} отклонена", userId);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Слишком много подписок на события бронирований");
+        }
+        HttpGet request = request(userId);
+        ClassicHttpResponse upstream;
+        try {
+            upstream = httpClient.executeOpen(server, request, null);
+        } catch (IOException e) {
+            streams.release();
+            log.error("Не удалось подключиться к потоку событий бронирований сервера", e);
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Сервер недоступен", e);
+        }
+        if (upstream.getCode() != HttpStatus.OK.value()) {
+            return relayError(upstream);
+        }
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeout.toMillis());
+        emitter.onCompletion(() -> abort(request, upstream));
+        emitter.onTimeout(() -> abort(request, upstream));
+        emitter.onError(error -> abort(request, upstream));
+        relays.execute(() -> relay(userId, request, upstream, emitter));
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .body(emitter);
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        relays.shutdownNow();
+        httpClient.close();
+    }
+
+    private HttpGet request(long userId) {
+        HttpGet request = new HttpGet(eventsUri);
+        request.setHeader(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE);
+        request.setHeader("X-Sharer-User-Id", String.valueOf(userId));
+        return request;
+    }
+
+    private void relay(long userId, HttpGet request, ClassicHttpResponse upstream, ResponseBodyEmitter emitter) {
+        try {
+            InputStream in = upstream.getEntity().getContent();
+            byte[] buffer = new byte[CHUNK_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                // до инициализации эмиттер копит отправленное, поэтому буфер передаётся копией
+                emitter.send(Arrays.copyOf(buffer, read), MediaType.TEXT_EVENT_STREAM);
+            }
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Поток событий бронирований пользователя ID: {} закрыт: {}", userId, e.getMessage());
+            emitter.complete();
+        } finally {
+            abort(request, upstream);
+            streams.release();
+        }
+    }
+
+    private ResponseEntity<ResponseBodyEmitter> relayError(ClassicHttpResponse upstream) {
+        try (upstream) {
+            ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+            if (upstream.getEntity() != null) {
+                emitter.send(EntityUtils.toByteArray(upstream.getEntity()), MediaType.APPLICATION_JSON);
+            }
+            emitter.complete();
+            return ResponseEntity.status(upstream.getCode()).contentType(MediaType.APPLICATION_JSON).body(emitter);
+        } catch (IOException e) {
+            log.error("Не удалось прочитать ответ сервера на подписку", e);
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Сервер недоступен", e);
+        } finally {
+            streams.release();
+        }
+    }
+
+    /**
+     * Сначала соединение рвётся отменой запроса: обычное закрытие тела дочитывало бы его до конца потока.
+     */
+    private static void abort(HttpGet request, ClassicHttpResponse upstream) {
+        request.cancel();
+        try {
+            upstream.close();
+        } catch (IOException e) {
+            log.debug("Ошибка закрытия соединения с сервером: {}", e.getMessage());
+        }
+    }
+}
@@ -5,10 +5,14 @@ import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
@@ -19,35 +23,61 @@ import ru.practicum.shareit.booking.dto.BookingState;
 @Slf4j
 @Validated
 public class BookingGateController {
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
     private final BookingClient bookingClient;
+    private final BookingEventsProxy bookingEventsProxy;
 
     @PostMapping
-    public ResponseEntity<Object> bookItem(@RequestHeader("X-Sharer-User-Id") long userId, @RequestBody @Valid BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<Object>> bookItem(@RequestHeader("X-Sharer-User-Id") long userId, @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.bookItem(userId, requestDto);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId, @RequestParam(name = "state", defaultValue = "all") String stateParam, @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from, @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<Object>> getBookings(@RequestHeader("X-Sharer-User-Id") long userId, @RequestParam(name = "state", defaultValue = "all") String stateParam, @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from, @Positive @RequestParam(name = "size", defaultValue = "10") Integer size, @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam).orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size, cursor);
+        if (cursor != null) {
+            return bookingClient.getBookingsAfterCursor(userId, state, cursor, size);
+        }
         return bookingClient.getBookings(userId, state, from, size);
     }
 
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<Object>> getBooking(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBooking(userId, bookingId);
     }
 
     @PatchMapping("{bookingId}")
-    public ResponseEntity<Object> approveBooking(@RequestHeader(value = "X-Sharer-User-Id", required = false) long userId, @PathVariable Long bookingId, @RequestParam("approved") Boolean approved) {
+    public Mono<ResponseEntity<Object>> approveBooking(@RequestHeader(value = "X-Sharer-User-Id", required = false) long userId, @PathVariable Long bookingId, @RequestParam("approved") Boolean approved) {
         return bookingClient.updateBooking(userId, bookingId, approved);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> findAllBookingsOfUserItemsWithState(@RequestHeader(value = "X-Sharer-User-Id", required = false) long userId, @RequestParam(value = "state", defaultValue = "ALL") String stateParam) {
+    public Mono<ResponseEntity<Object>> findAllBookingsOfUserItemsWithState(@RequestHeader(value = "X-Sharer-User-Id", required = false) long userId, @RequestParam(value = "state", defaultValue = "ALL") String stateParam, @PositiveOrZero @RequestParam(name = "from", required = false) Integer from, @Positive @RequestParam(name = "size", required = false) Integer size, @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam).orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        log.info("Get owner bookings with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size, cursor);
+        if (cursor != null) {
+            return bookingClient.getBookingsWithStateAfterCursor("/owner", userId, state, cursor, size != null ? size : DEFAULT_PAGE_SIZE);
+        }
+        if (from != null || size != null) {
+            return bookingClient.getBookingsWithState("/owner", userId, state, from != null ? from : 0, size != null ? size : DEFAULT_PAGE_SIZE);
+        }
         return bookingClient.getBookingsWithState("/owner", userId, state);
     }
+
+    @GetMapping(value = "/owner/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllBookingsOfUserItemsWithState(@RequestHeader(value = "X-Sharer-User-Id") long userId, @RequestParam(value = "state", defaultValue = "ALL") String stateParam) {
+        BookingState state = BookingState.from(stateParam).orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
+        log.info("Stream owner bookings with state {}, userId={}", stateParam, userId);
+        return bookingClient.streamBookingsWithState("/owner/stream", userId, state);
+    }
+
+    @GetMapping("/events")
+    public ResponseEntity<ResponseBodyEmitter> streamBookingEvents(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Subscribe to booking events, userId={}", userId);
+        return bookingEventsProxy.open(userId);
+    }
 }
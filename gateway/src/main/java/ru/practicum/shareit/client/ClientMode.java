@@ -0,0 +1,9 @@
+package ru.practicum.shareit.client;
+
+/**
+ * Способ вызова сервера из клиентов шлюза, задаётся свойством shareit.gateway.client.mode.
+ */
+public enum ClientMode {
+    BLOCKING,
+    REACTIVE
+}
@@ -0,0 +1,177 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Кэш ответов сервера на идемпотентные GET по заголовкам сервера. Пока ответ свеж по max-age (s-maxage, если есть),
+ * он отдаётся без обращения к серверу; устаревший перепроверяется через If-None-Match, и на 304 отдаётся сохранённое
+ * тело. Не кэшируются no-store, private и ответы без ETag и max-age. Ключ включает X-Sharer-User-Id: сервер отвечает
+ * с Vary по этому заголовку. Хранятся только тела byte[], то есть кэш работает в режиме passthrough. Вес записи -
+ * размер тела, общий объём ограничен max-size. Изменяющий вызов через шлюз удаляет записи затронутых ресурсов,
+ * а ответы, полученные параллельно с инвалидацией, в кэш не кладутся.
+ * <p>
+ * Инвалидация локальна: о записи через другой экземпляр шлюза или напрямую в сервер этот кэш не узнаёт
+ * и до shareit.http.cache.max-age сервера (по умолчанию 10 секунд) может отдавать устаревший ответ.
+ */
+@Component
+public class GatewayResponseCache {
+    private static final int ENTRY_OVERHEAD = 512;
+    /**
+     * В вещь входят бронирования и отзывы с именами авторов, в ленту запросов - вещи-ответы.
+     */
+    private static final Map<String, Set<String>> AFFECTED_RESOURCES = Map.of(
+            "/users", Set.of("/users", "/items", "/requests"),
+            "/items", Set.of("/items", "/requests"),
+            "/bookings", Set.of("/items"),
+            "/requests", Set.of("/requests"));
+
+    private final boolean enabled;
+    private final Cache<Key, CachedResponse> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public GatewayResponseCache(@Value("${shareit.gateway.response-cache.enabled:true}") boolean enabled,
+                                @Value("${shareit.gateway.response-cache.max-size:16MB}") DataSize maxSize,
+                                MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Key key, CachedResponse value) -> value.body().length + ENTRY_OVERHEAD)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "gatewayResponses");
+    }
+
+    /**
+     * loader получает заголовки условного запроса (If-None-Match для устаревшей записи) и выполняет запрос к серверу.
+     */
+    public Mono<ResponseEntity<Object>> get(String resource, String path, @Nullable Long userId, @Nullable Map<String, Object> parameters,
+                                            Function<HttpHeaders, Mono<ResponseEntity<Object>>> loader) {
+        if (!enabled) {
+            return loader.apply(HttpHeaders.EMPTY);
+        }
+        Key key = new Key(resource, path, parameters != null ? new TreeMap<>(parameters).toString() : "", userId);
+        CachedResponse cached = cache.getIfPresent(key);
+        if (cached != null && cached.isFresh(System.nanoTime())) {
+            return Mono.just(cached.toResponse());
+        }
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        if (cached != null && cached.etag() != null) {
+            conditionalHeaders.setIfNoneMatch(cached.etag());
+        }
+        long observedGeneration = generation.get();
+        return loader.apply(conditionalHeaders).map(response -> update(key, observedGeneration, cached, response));
+    }
+
+    public void invalidate(String resource) {
+        if (!enabled) {
+            return;
+        }
+        Set<String> affected = AFFECTED_RESOURCES.getOrDefault(resource, Set.of(resource));
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> affected.contains(key.resource()));
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private ResponseEntity<Object> update(Key key, long observedGeneration, @Nullable CachedResponse cached, ResponseEntity<Object> response) {
+        if (cached != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            CachedResponse revalidated = cached.revalidated(System.nanoTime());
+            put(key, observedGeneration, revalidated);
+            return revalidated.toResponse();
+        }
+        CachedResponse storable = CachedResponse.of(response, System.nanoTime());
+        if (storable != null) {
+            put(key, observedGeneration, storable);
+        } else {
+            cache.invalidate(key);
+        }
+        return response;
+    }
+
+    private void put(Key key, long observedGeneration, CachedResponse response) {
+        if (generation.get() == observedGeneration) {
+            cache.put(key, response);
+        }
+    }
+
+    private record Key(String resource, String path, String parameters, @Nullable Long userId) {
+    }
+
+    private record CachedResponse(byte[] body, HttpHeaders headers, @Nullable String etag, long maxAgeNanos, long freshUntilNanos) {
+
+        @Nullable
+        static CachedResponse of(ResponseEntity<Object> response, long now) {
+            if (!response.getStatusCode().isSameCodeAs(HttpStatus.OK) || !(response.getBody() instanceof byte[] body)) {
+                return null;
+            }
+            String cacheControl = String.join(",", response.getHeaders().getOrEmpty(HttpHeaders.CACHE_CONTROL)).toLowerCase(Locale.ROOT);
+            if (cacheControl.contains("no-store") || cacheControl.contains("private")) {
+                return null;
+            }
+            long maxAgeNanos = cacheControl.contains("no-cache") ? 0 : maxAgeNanos(cacheControl);
+            String etag = response.getHeaders().getETag();
+            if (etag == null && maxAgeNanos <= 0) {
+                return null;
+            }
+            long freshFor = Math.max(maxAgeNanos, 0);
+            return new CachedResponse(body, HttpHeaders.readOnlyHttpHeaders(response.getHeaders()), etag, freshFor, now + freshFor);
+        }
+
+        /**
+         * s-maxage для общих кэшей важнее max-age; без обоих -1.
+         */
+        private static long maxAgeNanos(String cacheControl) {
+            long maxAge = -1;
+            for (String directive : cacheControl.split(",")) {
+                String[] parts = directive.trim().split("=", 2);
+                if (parts.length != 2 || !(parts[0].equals("max-age") || parts[0].equals("s-maxage"))) {
+                    continue;
+                }
+                long seconds;
+                try {
+                    seconds = Long.parseLong(parts[1].trim().replace("\"", ""));
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+                if (parts[0].equals("s-maxage")) {
+                    return TimeUnit.SECONDS.toNanos(seconds);
+                }
+                maxAge = TimeUnit.SECONDS.toNanos(seconds);
+            }
+            return maxAge;
+        }
+
+        boolean isFresh(long now) {
+            return now - freshUntilNanos < 0;
+        }
+
+        CachedResponse revalidated(long now) {
+            return new CachedResponse(body, headers, etag, maxAgeNanos, now + maxAgeNanos);
+        }
+
+        ResponseEntity<Object> toResponse() {
+            return new ResponseEntity<>(body, headers, HttpStatus.OK);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.async.HttpAsyncClients;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManagerBuilder;
+import org.apache.hc.core5.reactor.IOReactorConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.HttpComponentsClientHttpConnector;
+
+import java.time.Duration;
+
+/**
+ * Коннектор WebClient на асинхронном HttpClient5. Асинхронный пул не может быть общим с пулом RestTemplate
+ * из {@link ServerClientConfig}, но настраивается теми же свойствами shareit.gateway.server-pool.*: лимиты,
+ * таймауты, время жизни, вытеснение простаивающих соединений и TCP_NODELAY. Метрики пула - те же, с тегом client=reactive.
+ */
+@Configuration
+public class ReactiveClientConfig {
+
+    @Bean
+    public PoolingAsyncClientConnectionManager reactiveConnectionManager(@Value("${shareit.gateway.server-pool.max-total:200}") int maxTotal,
+                                                                         @Value("${shareit.gateway.server-pool.max-per-route:200}") int maxPerRoute,
+                                                                         @Value("${shareit.gateway.server-pool.connect-timeout:PT5S}") Duration connectTimeout,
+                                                                         @Value("${shareit.gateway.server-pool.time-to-live:PT5M}") Duration timeToLive,
+                                                                         MeterRegistry meterRegistry) {
+        PoolingAsyncClientConnectionManager connectionManager = PoolingAsyncClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setTimeToLive(TimeValue.of(timeToLive))
+                        .build())
+                .build();
+        ServerClientConfig.registerPoolGauges(connectionManager, "reactive", meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean
+    public ClientHttpConnector clientHttpConnector(PoolingAsyncClientConnectionManager reactiveConnectionManager,
+                                                   @Value("${shareit.gateway.server-pool.response-timeout:PT30S}") Duration responseTimeout,
+                                                   @Value("${shareit.gateway.server-pool.connection-request-timeout:PT5S}") Duration connectionRequestTimeout,
+                                                   @Value("${shareit.gateway.server-pool.idle-timeout:PT30S}") Duration idleTimeout,
+                                                   @Value("${shareit.gateway.server-pool.tcp-no-delay:true}") boolean tcpNoDelay) {
+        return new HttpComponentsClientHttpConnector(HttpAsyncClients.custom()
+                .setConnectionManager(reactiveConnectionManager)
+                .setIOReactorConfig(IOReactorConfig.custom().setTcpNoDelay(tcpNoDelay).build())
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.of(responseTimeout))
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .build());
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.pool.ConnPoolControl;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.time.Duration;
+import java.util.function.ToIntFunction;
+
+/**
+ * Один пул соединений HttpClient5 на все RestTemplate-клиенты шлюза. Раньше каждый клиент создавал свою фабрику
+ * с настройками по умолчанию: четыре пула по 5 соединений на маршрут, без таймаутов ответа и вытеснения простаивающих
+ * соединений. Все клиенты ходят на один сервер, поэтому max-per-route по умолчанию равен max-total.
+ * Состояние пула видно в actuator: shareit.gateway.server.pool.leased/pending/available/max.
+ */
+@Configuration
+public class ServerClientConfig {
+    static final String POOL_METRIC_PREFIX = "shareit.gateway.server.pool.";
+
+    @Bean
+    public PoolingHttpClientConnectionManager serverConnectionManager(@Value("${shareit.gateway.server-pool.max-total:200}") int maxTotal,
+                                                                      @Value("${shareit.gateway.server-pool.max-per-route:200}") int maxPerRoute,
+                                                                      @Value("${shareit.gateway.server-pool.connect-timeout:PT5S}") Duration connectTimeout,
+                                                                      @Value("${shareit.gateway.server-pool.time-to-live:PT5M}") Duration timeToLive,
+                                                                      @Value("${shareit.gateway.server-pool.tcp-no-delay:true}") boolean tcpNoDelay,
+                                                                      MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxTotal)
+                .setMaxConnPerRoute(maxPerRoute)
+                .setDefaultSocketConfig(SocketConfig.custom().setTcpNoDelay(tcpNoDelay).build())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setTimeToLive(TimeValue.of(timeToLive))
+                        .build())
+                .build();
+        registerPoolGauges(connectionManager, "blocking", meterRegistry);
+        return connectionManager;
+    }
+
+    /**
+     * connection-request-timeout ограничивает ожидание свободного соединения, когда пул исчерпан.
+     * Простаивающие дольше idle-timeout соединения закрывает фоновый поток HttpClient.
+     */
+    @Bean
+    public ClientHttpRequestFactory serverRequestFactory(PoolingHttpClientConnectionManager serverConnectionManager,
+                                                         @Value("${shareit.gateway.server-pool.response-timeout:PT30S}") Duration responseTimeout,
+                                                         @Value("${shareit.gateway.server-pool.connection-request-timeout:PT5S}") Duration connectionRequestTimeout,
+                                                         @Value("${shareit.gateway.server-pool.idle-timeout:PT30S}") Duration idleTimeout) {
+        return new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                .setConnectionManager(serverConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setResponseTimeout(Timeout.of(responseTimeout))
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .build());
+    }
+
+    static void registerPoolGauges(ConnPoolControl<HttpRoute> pool, String client, MeterRegistry meterRegistry) {
+        registerPoolGauge(pool, client, "leased", PoolStats::getLeased, meterRegistry);
+        registerPoolGauge(pool, client, "pending", PoolStats::getPending, meterRegistry);
+        registerPoolGauge(pool, client, "available", PoolStats::getAvailable, meterRegistry);
+        registerPoolGauge(pool, client, "max", PoolStats::getMax, meterRegistry);
+    }
+
+    private static void registerPoolGauge(ConnPoolControl<HttpRoute> pool, String client, String name, ToIntFunction<PoolStats> stat,
+                                          MeterRegistry meterRegistry) {
+        Gauge.builder(POOL_METRIC_PREFIX + name, pool, p -> stat.applyAsInt(p.getTotalStats()))
+                .tag("client", client)
+                .register(meterRegistry);
+    }
+}
@@ -5,10 +5,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientMode;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
@@ -21,37 +25,49 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX)).requestFactory(() -> new HttpComponentsClientHttpRequestFactory()).build());
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder, ClientHttpRequestFactory serverRequestFactory, WebClient.Builder webClientBuilder, @Value("${shareit.gateway.client.mode:blocking}") ClientMode mode,
+                      @Value("${shareit.gateway.client.passthrough:true}") boolean passthrough, GatewayResponseCache responseCache) {
+        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX)).requestFactory(() -> serverRequestFactory).build(),
+                webClientBuilder.uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX)).build(), mode, passthrough, responseCache, API_PREFIX);
     }
 
-    public ResponseEntity<Object> getAllItems(Long userId) {
+    public Mono<ResponseEntity<Object>> getAllItems(Long userId) {
         return get("", userId);
     }
 
 
-    public ResponseEntity<Object> getItemById(Long userId, Long itemId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getItemById(Long userId, Long itemId) {
+        return getCached("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> postItem(Long userId, CreateItemDto createItemDto) {
+    public Mono<ResponseEntity<Object>> postItem(Long userId, CreateItemDto createItemDto) {
         return post("", userId, createItemDto);
     }
 
-    public ResponseEntity<Object> patchItem(Long userId, Long itemId, UpdateItemDto updateItemDto) {
+    public Mono<ResponseEntity<Object>> patchItem(Long userId, Long itemId, UpdateItemDto updateItemDto) {
         return patch("/" + itemId, userId, updateItemDto);
     }
 
-    public ResponseEntity<Object> searchItem(String path, String text) {
+    public Mono<ResponseEntity<Object>> searchItem(String path, String text) {
         Map<String, Object> parameters = Map.of("text", text);
         return get(path + "?text={text}", null, parameters);
     }
 
-    public ResponseEntity<Object> createComment(String path, Long userId, Long itemId, @Valid CreateCommentDto createCommentDto) {
+    public Mono<ResponseEntity<Object>> searchItem(String path, String text, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of("text", text, "from", from, "size", size);
+        return get(path + "?text={text}&from={from}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> suggestItemNames(String path, String prefix, Integer size) {
+        Map<String, Object> parameters = Map.of("prefix", prefix, "size", size);
+        return get(path + "?prefix={prefix}&size={size}", null, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> createComment(String path, Long userId, Long itemId, @Valid CreateCommentDto createCommentDto) {
         return post("/" + itemId + path, userId, createCommentDto);
     }
 
-    public ResponseEntity<Object> deleteItem(Long id) {
+    public Mono<ResponseEntity<Object>> deleteItem(Long id) {
         return delete("/" + id);
     }
 }
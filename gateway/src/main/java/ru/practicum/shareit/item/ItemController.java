@@ -1,12 +1,16 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CreateCommentDto;
 import ru.practicum.shareit.item.dto.CreateItemDto;
 import ru.practicum.shareit.item.dto.UpdateItemDto;
@@ -21,38 +25,46 @@ public class ItemController {
 
 
     @GetMapping
-    public ResponseEntity<Object> findAllItems(@RequestHeader(value = "X-Sharer-User-Id") Long userId) {
+    public Mono<ResponseEntity<Object>> findAllItems(@RequestHeader(value = "X-Sharer-User-Id") Long userId) {
         return itemClient.getAllItems(userId);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> findItemById(@RequestHeader(value = "X-Sharer-User-Id") Long userId, @PathVariable Long itemId) {
+    public Mono<ResponseEntity<Object>> findItemById(@RequestHeader(value = "X-Sharer-User-Id") Long userId, @PathVariable Long itemId) {
         return itemClient.getItemById(userId, itemId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId, @RequestBody @Valid CreateItemDto createItemDto) {
+    public Mono<ResponseEntity<Object>> createItem(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId, @RequestBody @Valid CreateItemDto createItemDto) {
         return itemClient.postItem(userId, createItemDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@RequestHeader(value = "X-Sharer-User-Id") Long userId, @PathVariable Long itemId, @RequestBody @Valid UpdateItemDto updateItemDto) {
+    public Mono<ResponseEntity<Object>> updateItem(@RequestHeader(value = "X-Sharer-User-Id") Long userId, @PathVariable Long itemId, @RequestBody @Valid UpdateItemDto updateItemDto) {
         return itemClient.patchItem(userId, itemId, updateItemDto);
 
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItem(@RequestParam String text) {
-        return itemClient.searchItem("/search", text);
+    public Mono<ResponseEntity<Object>> searchItem(@RequestParam String text, @RequestParam(defaultValue = "0") @PositiveOrZero Integer from, @RequestParam(required = false) @Positive Integer size) {
+        if (size == null) {
+            return itemClient.searchItem("/search", text);
+        }
+        return itemClient.searchItem("/search", text, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public Mono<ResponseEntity<Object>> suggestItemNames(@RequestParam @NotBlank String prefix, @RequestParam(defaultValue = "10") @Positive Integer size) {
+        return itemClient.suggestItemNames("/suggest", prefix, size);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> createComment(@RequestHeader(value = "X-Sharer-User-Id") Long userId, @PathVariable Long itemId, @RequestBody @Valid CreateCommentDto createCommentDto) {
+    public Mono<ResponseEntity<Object>> createComment(@RequestHeader(value = "X-Sharer-User-Id") Long userId, @PathVariable Long itemId, @RequestBody @Valid CreateCommentDto createCommentDto) {
         return itemClient.createComment("/comment", userId, itemId, createCommentDto);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteItem(@RequestBody Long id) {
+    public Mono<ResponseEntity<Object>> deleteItem(@RequestBody Long id) {
         return itemClient.deleteItem(id);
     }
 }
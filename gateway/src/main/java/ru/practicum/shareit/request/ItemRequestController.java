@@ -1,12 +1,14 @@
 package ru.practicum.shareit.request;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.CreateRequestDto;
 
 /**
@@ -19,26 +21,39 @@ import ru.practicum.shareit.request.dto.CreateRequestDto;
 @Validated
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
+    private static final int DEFAULT_PAGE_SIZE = 10;
     private final RequestClient requestClient;
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@RequestHeader(value = "X-Sharer-User-Id") long userId, @RequestBody @Valid CreateRequestDto description) {
+    public Mono<ResponseEntity<Object>> createRequest(@RequestHeader(value = "X-Sharer-User-Id") long userId, @RequestBody @Valid CreateRequestDto description) {
         return requestClient.createRequest(userId, description);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getUsersRequests(@RequestHeader(value = "X-Sharer-User-Id") long userId) {
+    public Mono<ResponseEntity<Object>> getUsersRequests(@RequestHeader(value = "X-Sharer-User-Id") long userId) {
         return requestClient.getUsersRequests(userId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader(value = "X-Sharer-User-Id") long userId) {
+    public Mono<ResponseEntity<Object>> getAllRequests(@RequestHeader(value = "X-Sharer-User-Id") long userId, @Positive @RequestParam(name = "size", required = false) Integer size, @RequestParam(name = "cursor", required = false) String cursor) {
+        log.info("Get all requests userId={}, size={}, cursor={}", userId, size, cursor);
+        if (cursor != null) {
+            return requestClient.getAllRequestsAfterCursor("/all", userId, cursor, size != null ? size : DEFAULT_PAGE_SIZE);
+        }
+        if (size != null) {
+            return requestClient.getAllRequests("/all", userId, size);
+        }
         return requestClient.getAllRequests("/all", userId);
     }
 
     @GetMapping("/{reqId}")
-    public ResponseEntity<Object> getRequestById(@PathVariable long reqId) {
+    public Mono<ResponseEntity<Object>> getRequestById(@PathVariable long reqId) {
         return requestClient.getRequestById(reqId);
     }
 
+    @GetMapping("/{reqId}/matches")
+    public Mono<ResponseEntity<Object>> getRequestMatches(@PathVariable long reqId) {
+        return requestClient.getRequestMatches(reqId);
+    }
+
 }
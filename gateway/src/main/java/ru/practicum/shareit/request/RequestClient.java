@@ -4,34 +4,56 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientMode;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.request.dto.CreateRequestDto;
 
+import java.util.Map;
+
 @Service
 public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX)).requestFactory(() -> new HttpComponentsClientHttpRequestFactory()).build());
+    public RequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder, ClientHttpRequestFactory serverRequestFactory, WebClient.Builder webClientBuilder, @Value("${shareit.gateway.client.mode:blocking}") ClientMode mode,
+                         @Value("${shareit.gateway.client.passthrough:true}") boolean passthrough, GatewayResponseCache responseCache) {
+        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX)).requestFactory(() -> serverRequestFactory).build(),
+                webClientBuilder.uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX)).build(), mode, passthrough, responseCache, API_PREFIX);
     }
 
-    public ResponseEntity<Object> createRequest(long userId, CreateRequestDto description) {
+    public Mono<ResponseEntity<Object>> createRequest(long userId, CreateRequestDto description) {
         return post("", userId, description);
     }
 
-    public ResponseEntity<Object> getUsersRequests(long userId) {
+    public Mono<ResponseEntity<Object>> getUsersRequests(long userId) {
         return get("", userId);
     }
 
-    public ResponseEntity<Object> getAllRequests(String path, long userId) {
-        return get(path, userId);
+    public Mono<ResponseEntity<Object>> getAllRequests(String path, long userId) {
+        return getCached(path, userId);
+    }
+
+    public Mono<ResponseEntity<Object>> getAllRequests(String path, long userId, Integer size) {
+        Map<String, Object> parameters = Map.of("size", size);
+        return getCached(path + "?size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getRequestById(long reqId) {
+    public Mono<ResponseEntity<Object>> getAllRequestsAfterCursor(String path, long userId, String cursor, Integer size) {
+        Map<String, Object> parameters = Map.of("cursor", cursor, "size", size);
+        return getCached(path + "?cursor={cursor}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Object>> getRequestById(long reqId) {
         return get("/" + reqId);
     }
+
+    public Mono<ResponseEntity<Object>> getRequestMatches(long reqId) {
+        return get("/" + reqId + "/matches");
+    }
 }
\ No newline at end of file
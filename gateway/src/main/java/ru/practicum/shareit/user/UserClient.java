@@ -5,10 +5,14 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ClientMode;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.user.dto.CreateUserDto;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
 
@@ -17,28 +21,30 @@ public class UserClient extends BaseClient {
     private static final String API_PREFIX = "/users";
 
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX)).requestFactory(() -> new HttpComponentsClientHttpRequestFactory()).build());
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder, ClientHttpRequestFactory serverRequestFactory, WebClient.Builder webClientBuilder, @Value("${shareit.gateway.client.mode:blocking}") ClientMode mode,
+                      @Value("${shareit.gateway.client.passthrough:true}") boolean passthrough, GatewayResponseCache responseCache) {
+        super(builder.uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX)).requestFactory(() -> serverRequestFactory).build(),
+                webClientBuilder.uriBuilderFactory(new DefaultUriBuilderFactory(serverUrl + API_PREFIX)).build(), mode, passthrough, responseCache, API_PREFIX);
     }
 
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<Object>> getUsers() {
         return get("");
     }
 
-    public ResponseEntity<Object> getUser(Long id) {
-        return get("/" + id);
+    public Mono<ResponseEntity<Object>> getUser(Long id) {
+        return getCached("/" + id, null);
     }
 
 
-    public ResponseEntity<Object> createUser(@Valid CreateUserDto createUserDto) {
+    public Mono<ResponseEntity<Object>> createUser(@Valid CreateUserDto createUserDto) {
         return post("", createUserDto);
     }
 
-    public ResponseEntity<Object> updateUser(Long id, @Valid UpdateUserDto user) {
+    public Mono<ResponseEntity<Object>> updateUser(Long id, @Valid UpdateUserDto user) {
         return patch("/" + id, user);
     }
 
-    public ResponseEntity<Object> deleteUser(Long id) {
+    public Mono<ResponseEntity<Object>> deleteUser(Long id) {
         return delete("/" + id);
     }
 }
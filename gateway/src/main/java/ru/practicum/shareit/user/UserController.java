@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.CreateUserDto;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
 
@@ -21,27 +22,27 @@ public class UserController {
 
 
     @GetMapping
-    public ResponseEntity<Object> findAllUsers() {
+    public Mono<ResponseEntity<Object>> findAllUsers() {
         return userClient.getUsers();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Object> findUserById(@PathVariable Long id) {
+    public Mono<ResponseEntity<Object>> findUserById(@PathVariable Long id) {
         return userClient.getUser(id);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Valid @RequestBody CreateUserDto createUserDto) {
+    public Mono<ResponseEntity<Object>> createUser(@Valid @RequestBody CreateUserDto createUserDto) {
         return userClient.createUser(createUserDto);
     }
 
     @PatchMapping("/{id}")
-    public ResponseEntity<Object> updateUser(@PathVariable Long id, @Valid @RequestBody UpdateUserDto user) {
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable Long id, @Valid @RequestBody UpdateUserDto user) {
         return userClient.updateUser(id, user);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Object> deleteUser(@PathVariable Long id) {
+    public Mono<ResponseEntity<Object>> deleteUser(@PathVariable Long id) {
         return userClient.deleteUser(id);
     }
 
@@ -0,0 +1,78 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.booking;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.client.ClientMode;
+import ru.practicum.shareit.client.GatewayResponseCache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+class BookingClientStreamTest {
+
+    private HttpServer server;
+    private BookingClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/bookings/owner/stream", exchange -> {
+            boolean known = "1".equals(exchange.getRequestHeaders().getFirst("X-Sharer-User-Id"));
+            byte[] body = (known ? "[{\"id\":1}]" : "{\"error\":\"User Id указан неверно\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(known ? 200 : 404, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        client = new BookingClient("http://localhost:" + server.getAddress().getPort(), new RestTemplateBuilder(), new SimpleClientHttpRequestFactory(),
+                WebClient.builder(), ClientMode.BLOCKING, true, new GatewayResponseCache(false, DataSize.ofMegabytes(1), new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void streamBookingsWithState_WhenServerRejects_ShouldRelayStatusAndBodyBeforeStreaming() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = client.streamBookingsWithState("/owner/stream", 2L, BookingState.ALL);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.NOT_FOUND));
+        assertThat(write(response), is("{\"error\":\"User Id указан неверно\"}"));
+    }
+
+    @Test
+    void streamBookingsWithState_WhenServerAccepts_ShouldCopyBody() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = client.streamBookingsWithState("/owner/stream", 1L, BookingState.ALL);
+
+        assertThat(response.getStatusCode(), is(HttpStatus.OK));
+        assertThat(write(response), is("[{\"id\":1}]"));
+    }
+
+    private static String write(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,129 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItGateway;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Сравнение режимов шлюза под 5000 одновременных соединений: GET /users/{id} через шлюз к заглушке сервера,
+ * отвечающей через 50 мс. Печатает пропускную способность, p50/p99 задержки и пиковое число потоков JVM.
+ * Запуск: mvn test -pl gateway -P benchmark (нужен ulimit -n больше 10000).
+ */
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class GatewayClientLoadTest {
+
+    private static final int CONNECTIONS = 5000;
+    private static final int WARMUP = 200;
+    private static final Duration SERVER_LATENCY = Duration.ofMillis(50);
+    private static final byte[] USER_JSON = "{\"id\":1,\"name\":\"User\",\"email\":\"user@email.com\"}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void compareBlockingAndReactiveClients() throws Exception {
+        withStubServer(port -> List.of(
+                measure("BLOCKING", port, "shareit.gateway.client.mode=blocking"),
+                measure("REACTIVE", port, "shareit.gateway.client.mode=reactive")));
+    }
+
+    @Test
+    void comparePlatformAndVirtualThreads() throws Exception {
+        withStubServer(port -> List.of(
+                measure("платформенные потоки", port, "spring.threads.virtual.enabled=false"),
+                measure("виртуальные потоки", port, "spring.threads.virtual.enabled=true")));
+    }
+
+    private static void withStubServer(StubScenario scenario) throws Exception {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), CONNECTIONS * 2);
+        ExecutorService serverExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(serverExecutor);
+        server.createContext("/users/", exchange -> {
+            try {
+                Thread.sleep(SERVER_LATENCY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, USER_JSON.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(USER_JSON);
+            }
+        });
+        server.start();
+        try {
+            scenario.run(server.getAddress().getPort()).forEach(System.out::println);
+        } finally {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+        }
+    }
+
+    private static String measure(String label, int serverPort, String property) throws Exception {
+        try (ConfigurableApplicationContext gateway = new SpringApplicationBuilder(ShareItGateway.class).properties(
+                "server.port=0",
+                "shareit-server.url=http://localhost:" + serverPort,
+                property,
+                "server.tomcat.max-connections=" + CONNECTIONS * 2,
+                "server.tomcat.accept-count=" + CONNECTIONS,
+                "spring.mvc.async.request-timeout=120s",
+                "logging.level.org.springframework.web.client.RestTemplate=INFO").run();
+             ExecutorService clientExecutor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clientExecutor).build()) {
+            URI uri = URI.create("http://localhost:" + ((WebServerApplicationContext) gateway).getWebServer().getPort() + "/users/1");
+            fire(client, uri, WARMUP);
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            long started = System.nanoTime();
+            long[] latencies = fire(client, uri, CONNECTIONS);
+            double seconds = (System.nanoTime() - started) / 1e9;
+            Arrays.sort(latencies);
+            long p50 = latencies[latencies.length / 2] / 1_000_000;
+            long p99 = latencies[(int) (latencies.length * 0.99)] / 1_000_000;
+            return String.format("%s: %d соединений, %.0f запросов/с, p50 %d мс, p99 %d мс, пик потоков JVM %d",
+                    label, CONNECTIONS, CONNECTIONS / seconds, p50, p99, threads.getPeakThreadCount());
+        }
+    }
+
+    private static long[] fire(HttpClient client, URI uri, int requests) {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofMinutes(2)).GET().build();
+        List<CompletableFuture<Long>> responses = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            long start = System.nanoTime();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).thenApply(response -> {
+                assertThat(response.statusCode(), is(200));
+                return System.nanoTime() - start;
+            }));
+        }
+        return responses.stream().mapToLong(CompletableFuture::join).toArray();
+    }
+
+    @FunctionalInterface
+    private interface StubScenario {
+        List<String> run(int serverPort) throws Exception;
+    }
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,107 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.client;
+
+import com.sun.management.ThreadMXBean;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItGateway;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Выделение памяти шлюзом на GET /bookings/owner с ответом сервера на 1000 бронирований: разбор в дерево Jackson
+ * с повторной сериализацией против передачи байтов сервера как есть. Считается суммарный объём, выделенный всеми
+ * потоками JVM за серию запросов (com.sun.management.ThreadMXBean), и пересчитывается на один запрос.
+ * Запуск: mvn test -pl gateway -P benchmark
+ */
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class GatewayPassthroughBenchmarkTest {
+
+    private static final int BOOKINGS = 1000;
+    private static final int WARMUP = 300;
+    private static final int REQUESTS = 1000;
+
+    @Test
+    void compareParsedAndPassthroughResponses() throws Exception {
+        byte[] bookings = bookingsJson();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/bookings/owner", exchange -> {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bookings.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(bookings);
+            }
+        });
+        server.start();
+        try {
+            int port = server.getAddress().getPort();
+            System.out.printf("Ответ сервера: %d КБ%n", bookings.length / 1024);
+            System.out.println(measure("разбор Jackson", port, false));
+            System.out.println(measure("passthrough", port, true));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static String measure(String label, int serverPort, boolean passthrough) throws Exception {
+        try (ConfigurableApplicationContext gateway = new SpringApplicationBuilder(ShareItGateway.class).properties(
+                "server.port=0",
+                "shareit-server.url=http://localhost:" + serverPort,
+                "shareit.gateway.client.passthrough=" + passthrough,
+                "logging.level.org.springframework.web.client.RestTemplate=INFO").run();
+             HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build()) {
+            URI uri = URI.create("http://localhost:" + ((WebServerApplicationContext) gateway).getWebServer().getPort() + "/bookings/owner");
+            HttpRequest request = HttpRequest.newBuilder(uri).header("X-Sharer-User-Id", "1").GET().build();
+            fire(client, request, WARMUP);
+
+            ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long allocatedBefore = allocatedBytes(threads);
+            long started = System.nanoTime();
+            fire(client, request, REQUESTS);
+            double seconds = (System.nanoTime() - started) / 1e9;
+            long allocated = allocatedBytes(threads) - allocatedBefore;
+            return String.format("%s: %d КБ на запрос, %.0f МБ/с выделений, %.0f запросов/с",
+                    label, allocated / REQUESTS / 1024, allocated / seconds / (1024 * 1024), REQUESTS / seconds);
+        }
+    }
+
+    private static void fire(HttpClient client, HttpRequest request, int requests) throws Exception {
+        for (int i = 0; i < requests; i++) {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            assertThat(response.statusCode(), is(200));
+        }
+    }
+
+    /**
+     * Потоки, завершившиеся за время замера, не учитываются; пулы Tomcat и HttpClient за серию запросов не меняются.
+     */
+    private static long allocatedBytes(ThreadMXBean threads) {
+        return Arrays.stream(threads.getThreadAllocatedBytes(threads.getAllThreadIds())).filter(bytes -> bytes > 0).sum();
+    }
+
+    private static byte[] bookingsJson() {
+        StringJoiner json = new StringJoiner(",", "[", "]");
+        for (int id = 1; id <= BOOKINGS; id++) {
+            json.add("{\"id\":" + id + ",\"start\":\"2030-01-01T10:00:00\",\"end\":\"2030-01-02T10:00:00\",\"status\":\"APPROVED\","
+                    + "\"booker\":{\"id\":2},\"item\":{\"id\":" + id + ",\"name\":\"Дрель " + id + "\"}}");
+        }
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,90 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class GatewayResponseCacheTest {
+
+    private final GatewayResponseCache cache = new GatewayResponseCache(true, DataSize.ofMegabytes(1), new SimpleMeterRegistry());
+
+    @Test
+    void get_ShouldServeFreshResponseWithoutServerCallAndKeepUsersApart() {
+        StubServer server = new StubServer(ok("{\"id\":1}", "max-age=60", "\"v1\""));
+
+        assertThat(body(cache.get("/items", "/1", 1L, null, server::call)), is("{\"id\":1}"));
+        assertThat(body(cache.get("/items", "/1", 1L, null, server::call)), is("{\"id\":1}"));
+        assertThat(server.requests, hasSize(1));
+
+        cache.get("/items", "/1", 2L, null, server::call).block();
+        assertThat(server.requests, hasSize(2));
+    }
+
+    @Test
+    void get_ShouldRevalidateStaleResponseWithEtagAndReuseBodyOnNotModified() {
+        StubServer server = new StubServer(ok("{\"id\":1}", "max-age=0", "\"v1\""), ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
+
+        cache.get("/users", "/1", null, null, server::call).block();
+        ResponseEntity<Object> revalidated = cache.get("/users", "/1", null, null, server::call).block();
+
+        assertThat(server.requests.get(0).getIfNoneMatch(), empty());
+        assertThat(server.requests.get(1).getIfNoneMatch(), contains("\"v1\""));
+        assertThat(revalidated.getStatusCode(), is(HttpStatus.OK));
+        assertThat(body(Mono.just(revalidated)), is("{\"id\":1}"));
+    }
+
+    @Test
+    void invalidate_ShouldDropAffectedResourcesAndNoStoreIsNeverCached() {
+        StubServer server = new StubServer(ok("[]", "max-age=60", null), ok("{\"id\":1}", "max-age=60", null), ok("{}", "no-store", "\"v1\""));
+        cache.get("/requests", "/all", 1L, null, server::call).block();
+        cache.get("/users", "/1", null, null, server::call).block();
+        cache.get("/items", "/1", 1L, null, server::call).block();
+        assertThat(cache.size(), is(2L));
+
+        cache.invalidate("/items");
+
+        assertThat(cache.size(), is(1L));
+        cache.get("/users", "/1", null, null, server::call).block();
+        assertThat(server.requests, hasSize(3));
+    }
+
+    private static ResponseEntity<Object> ok(String body, String cacheControl, String etag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().header(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (etag != null) {
+            response.eTag(etag);
+        }
+        return response.body(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String body(Mono<ResponseEntity<Object>> response) {
+        return new String((byte[]) response.block().getBody(), StandardCharsets.UTF_8);
+    }
+
+    private static class StubServer {
+        private final List<ResponseEntity<Object>> responses;
+        private final List<HttpHeaders> requests = new ArrayList<>();
+
+        @SafeVarargs
+        StubServer(ResponseEntity<Object>... responses) {
+            this.responses = List.of(responses);
+        }
+
+        Mono<ResponseEntity<Object>> call(HttpHeaders conditionalHeaders) {
+            requests.add(conditionalHeaders);
+            return Mono.just(responses.get(Math.min(requests.size(), responses.size()) - 1));
+        }
+    }
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,54 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.nio.PoolingAsyncClientConnectionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ReactiveClientConfigTest {
+
+    @Test
+    void clientHttpConnector_WhenServerHangs_ShouldFailAfterResponseTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.start();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReactiveClientConfig config = new ReactiveClientConfig();
+        PoolingAsyncClientConnectionManager connectionManager = config.reactiveConnectionManager(4, 4, Duration.ofSeconds(1), Duration.ofMinutes(1), meterRegistry);
+        ClientHttpConnector connector = config.clientHttpConnector(connectionManager, Duration.ofMillis(200), Duration.ofSeconds(1), Duration.ofSeconds(30), true);
+        try {
+            WebClient webClient = WebClient.builder().clientConnector(connector).baseUrl("http://localhost:" + server.getAddress().getPort()).build();
+            long startedAt = System.nanoTime();
+
+            assertThrows(Exception.class, () -> webClient.get().uri("/users/1").retrieve().bodyToMono(String.class).block(Duration.ofSeconds(10)));
+
+            assertThat(Duration.ofNanos(System.nanoTime() - startedAt).toMillis(), lessThan(5_000L));
+            assertThat(meterRegistry.get(ServerClientConfig.POOL_METRIC_PREFIX + "max").tag("client", "reactive").gauge().value(), is(4.0));
+        } finally {
+            release.countDown();
+            server.stop(0);
+            connectionManager.close();
+        }
+    }
+}
+// CHECKSTYLE:ON
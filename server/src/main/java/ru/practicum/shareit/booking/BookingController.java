@@ -1,11 +1,23 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingCursorPage;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.events.BookingEventBroadcaster;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
@@ -16,7 +28,11 @@ import java.util.List;
 @RequestMapping(path = "/bookings")
 public class BookingController {
 
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
     private final BookingService bookingService;
+    private final ObjectMapper objectMapper;
+    private final BookingEventBroadcaster bookingEvents;
 
     @PostMapping
     public ResponseEntity<BookingDto> createBooking(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId, @RequestBody CreateBookingDto createBookingDto) {
@@ -34,13 +50,57 @@ public class BookingController {
     }
 
     @GetMapping
-    public ResponseEntity<List<BookingDto>> findAllUserBookingsWithState(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId, @RequestParam(name = "state", defaultValue = "all") String stateParam, @RequestParam(name = "from", defaultValue = "0") Integer from, @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public ResponseEntity<List<BookingDto>> findAllUserBookingsWithState(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId, @RequestParam(name = "state", defaultValue = "all") String stateParam, @RequestParam(name = "from", defaultValue = "0") Integer from, @RequestParam(name = "size", defaultValue = "10") Integer size, @RequestParam(name = "cursor", required = false) String cursor) {
         BookingServiceState state = BookingServiceState.from(stateParam).orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        return ResponseEntity.ok(bookingService.findAllUserBookingsWithState(userId, state, from, size));
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.findAllUserBookingsWithState(userId, state, from, size));
+        }
+        return withNextCursor(bookingService.findAllUserBookingsAfterCursor(userId, state, cursor, size));
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<List<BookingDto>> findAllBookingsOfUserItemsWithState(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId, @RequestParam(value = "state", defaultValue = "ALL") BookingServiceState state) {
+    public ResponseEntity<List<BookingDto>> findAllBookingsOfUserItemsWithState(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId, @RequestParam(value = "state", defaultValue = "ALL") BookingServiceState state, @RequestParam(name = "from", required = false) Integer from, @RequestParam(name = "size", required = false) Integer size, @RequestParam(name = "cursor", required = false) String cursor) {
+        if (cursor != null) {
+            return withNextCursor(bookingService.findAllBookingsOfUserItemsAfterCursor(userId, state, cursor, size != null ? size : DEFAULT_PAGE_SIZE));
+        }
+        if (from != null || size != null) {
+            return ResponseEntity.ok(bookingService.findAllBookingsOfUserItemsWithState(userId, state, from != null ? from : 0, size != null ? size : DEFAULT_PAGE_SIZE));
+        }
         return ResponseEntity.ok(bookingService.findAllBookingsOfUserItemsWithState(userId, state));
     }
+
+    @GetMapping(value = "/owner/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllBookingsOfUserItemsWithState(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId, @RequestParam(value = "state", defaultValue = "ALL") BookingServiceState state) {
+        bookingService.checkBookingsStream(userId, state);
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = out -> {
+            // при ошибке посреди выгрузки массив не закрывается: оборванный ответ не должен выглядеть полным
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT)) {
+                generator.writeStartArray();
+                bookingService.streamAllBookingsOfUserItemsWithState(userId, state, dto -> {
+                    try {
+                        writer.writeValue(generator, dto);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBookingEvents(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId) {
+        bookingService.checkEventsSubscriber(userId);
+        return bookingEvents.subscribe(userId);
+    }
+
+    private static ResponseEntity<List<BookingDto>> withNextCursor(BookingCursorPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(BookingCursor.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getContent());
+    }
 }
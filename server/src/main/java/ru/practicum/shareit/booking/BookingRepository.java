@@ -1,37 +1,77 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Page;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.dto.ItemBookingBoundary;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.overlap.BookingInterval;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("SELECT b FROM Booking b WHERE b.id = :id AND b.item.owner.id = :itemOwnerId")
     Optional<Booking> findByIdAndItemOwnerId(@Param("id") Long id, @Param("itemOwnerId") Long itemOwnerId);
 
+    @Query("SELECT b.item.id FROM Booking b WHERE b.id = :id")
+    Optional<Long> findItemIdById(@Param("id") Long id);
+
     @EntityGraph(attributePaths = {"item", "booker"})
-    Page<Booking> findAllByBooker_IdAndEndDateBefore(Long id, LocalDateTime endDate, Pageable pageable);
+    Slice<Booking> findAllByBooker_IdAndEndDateBefore(Long id, LocalDateTime endDate, Pageable pageable);
 
     @EntityGraph(attributePaths = {"item", "booker"})
-    Page<Booking> findAllByBooker_IdAndStartDateBeforeAndEndDateAfter(Long id, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
+    Slice<Booking> findAllByBooker_IdAndStartDateBeforeAndEndDateAfter(Long id, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
 
     @EntityGraph(attributePaths = {"item", "booker"})
-    Page<Booking> findAllByBooker_IdAndStartDateAfter(Long id, LocalDateTime startDate, Pageable pageable);
+    Slice<Booking> findAllByBooker_IdAndStartDateAfter(Long id, LocalDateTime startDate, Pageable pageable);
 
     @EntityGraph(attributePaths = {"item", "booker"})
-    Page<Booking> findAllByBooker_IdAndStatus(Long id, BookingStatus status, Pageable pageable);
+    Slice<Booking> findAllByBooker_IdAndStatus(Long id, BookingStatus status, Pageable pageable);
 
     @EntityGraph(attributePaths = {"item", "booker"})
-    Page<Booking> findAllByBooker_Id(Long id, Pageable pageable);
+    Slice<Booking> findAllByBooker_Id(Long id, Pageable pageable);
+
+    @Query("""
+            SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.booker.id = :bookerId
+            AND (b.startDate < :cursorStart OR (b.startDate = :cursorStart AND b.id < :cursorId))
+            ORDER BY b.startDate DESC, b.id DESC""")
+    Slice<Booking> findBookerBookingsAfter(@Param("bookerId") Long bookerId, @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query("""
+            SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.booker.id = :bookerId AND b.endDate < :now
+            AND (b.startDate < :cursorStart OR (b.startDate = :cursorStart AND b.id < :cursorId))
+            ORDER BY b.startDate DESC, b.id DESC""")
+    Slice<Booking> findBookerPastBookingsAfter(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now, @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query("""
+            SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.booker.id = :bookerId AND b.startDate < :now AND b.endDate > :now
+            AND (b.startDate < :cursorStart OR (b.startDate = :cursorStart AND b.id < :cursorId))
+            ORDER BY b.startDate DESC, b.id DESC""")
+    Slice<Booking> findBookerCurrentBookingsAfter(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now, @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query("""
+            SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.booker.id = :bookerId AND b.startDate > :now
+            AND (b.startDate < :cursorStart OR (b.startDate = :cursorStart AND b.id < :cursorId))
+            ORDER BY b.startDate DESC, b.id DESC""")
+    Slice<Booking> findBookerFutureBookingsAfter(@Param("bookerId") Long bookerId, @Param("now") LocalDateTime now, @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query("""
+            SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker WHERE b.booker.id = :bookerId AND b.status = :status
+            AND (b.startDate < :cursorStart OR (b.startDate = :cursorStart AND b.id < :cursorId))
+            ORDER BY b.startDate DESC, b.id DESC""")
+    Slice<Booking> findBookerBookingsWithStatusAfter(@Param("bookerId") Long bookerId, @Param("status") BookingStatus status, @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Pageable pageable);
 
     @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findAllByItem_Owner_Id(Long id, Sort sort);
@@ -51,6 +91,71 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findAllByItem_Owner_IdAndStatus(Long id, BookingStatus status, Sort sort);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Slice<Booking> findAllByItem_Owner_Id(Long id, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Slice<Booking> findAllByItem_Owner_IdAndEndDateBefore(Long id, LocalDateTime endDate, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Slice<Booking> findAllByItem_Owner_IdAndStartDateBeforeAndEndDateAfter(Long id, LocalDateTime startDate, LocalDateTime endDate, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Slice<Booking> findAllByItem_Owner_IdAndStartDateAfter(Long id, LocalDateTime startDate, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Slice<Booking> findAllByItem_Owner_IdAndStatus(Long id, BookingStatus status, Pageable pageable);
+
+    @Query("""
+            SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker WHERE i.owner.id = :ownerId
+            AND (b.startDate < :cursorStart OR (b.startDate = :cursorStart AND b.id < :cursorId))
+            ORDER BY b.startDate DESC, b.id DESC""")
+    Slice<Booking> findOwnerBookingsAfter(@Param("ownerId") Long ownerId, @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query("""
+            SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker WHERE i.owner.id = :ownerId AND b.endDate < :now
+            AND (b.startDate < :cursorStart OR (b.startDate = :cursorStart AND b.id < :cursorId))
+            ORDER BY b.startDate DESC, b.id DESC""")
+    Slice<Booking> findOwnerPastBookingsAfter(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now, @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query("""
+            SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker WHERE i.owner.id = :ownerId AND b.startDate < :now AND b.endDate > :now
+            AND (b.startDate < :cursorStart OR (b.startDate = :cursorStart AND b.id < :cursorId))
+            ORDER BY b.startDate DESC, b.id DESC""")
+    Slice<Booking> findOwnerCurrentBookingsAfter(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now, @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query("""
+            SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker WHERE i.owner.id = :ownerId AND b.startDate > :now
+            AND (b.startDate < :cursorStart OR (b.startDate = :cursorStart AND b.id < :cursorId))
+            ORDER BY b.startDate DESC, b.id DESC""")
+    Slice<Booking> findOwnerFutureBookingsAfter(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now, @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @Query("""
+            SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker WHERE i.owner.id = :ownerId AND b.status = :status
+            AND (b.startDate < :cursorStart OR (b.startDate = :cursorStart AND b.id < :cursorId))
+            ORDER BY b.startDate DESC, b.id DESC""")
+    Slice<Booking> findOwnerBookingsWithStatusAfter(@Param("ownerId") Long ownerId, @Param("status") BookingStatus status, @Param("cursorStart") LocalDateTime cursorStart, @Param("cursorId") Long cursorId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Booking> streamAllByItem_Owner_Id(Long id, Sort sort);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Booking> streamAllByItem_Owner_IdAndEndDateBefore(Long id, LocalDateTime endDate, Sort sort);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Booking> streamAllByItem_Owner_IdAndStartDateBeforeAndEndDateAfter(Long id, LocalDateTime startDate, LocalDateTime endDate, Sort sort);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Booking> streamAllByItem_Owner_IdAndStartDateAfter(Long id, LocalDateTime startDate, Sort sort);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<Booking> streamAllByItem_Owner_IdAndStatus(Long id, BookingStatus status, Sort sort);
+
     @Query("SELECT b FROM Booking b LEFT JOIN FETCH b.item i LEFT JOIN FETCH b.booker LEFT JOIN FETCH i.owner WHERE b.id = :bookingId")
     Optional<Booking> findWithBookerAndOwnerById(@Param("bookingId") Long bookingId);
 
@@ -70,8 +175,39 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             ORDER BY b.startDate ASC LIMIT 1""")
     Optional<Booking> findNextBooking(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
 
+    @Query("""
+            SELECT MIN(b.endDate) FROM Booking b WHERE b.item.id = :itemId
+            AND b.endDate >= :now AND b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED""")
+    Optional<LocalDateTime> findEarliestApprovedEndFrom(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
+
+    /**
+     * Последнее и ближайшее APPROVED-бронирование для всех вещей владельца за один запрос:
+     * не более двух строк на вещь, ранжирование оконной функцией внутри групп LAST/NEXT.
+     */
+    @Query(value = """
+            SELECT ranked.item_id AS "itemId", ranked.kind AS "kind", ranked.start_date AS "startDate", ranked.end_date AS "endDate"
+            FROM (SELECT b.item_id, b.start_date, b.end_date,
+                         CASE WHEN b.end_date < :now THEN 'LAST' ELSE 'NEXT' END AS kind,
+                         ROW_NUMBER() OVER (PARTITION BY b.item_id, CASE WHEN b.end_date < :now THEN 0 ELSE 1 END
+                                            ORDER BY CASE WHEN b.end_date < :now THEN b.end_date END DESC, b.start_date) AS rn
+                  FROM bookings b JOIN items i ON i.id = b.item_id
+                  WHERE i.owner_id = :ownerId AND b.status = 'APPROVED'
+                  AND (b.end_date < :now OR b.start_date > :now)) ranked
+            WHERE ranked.rn = 1""", nativeQuery = true)
+    List<ItemBookingBoundary> findLastAndNextApprovedByOwnerId(@Param("ownerId") Long ownerId, @Param("now") LocalDateTime now);
+
+    @Query("""
+            SELECT new ru.practicum.shareit.booking.overlap.BookingInterval(b.id, b.startDate, b.endDate)
+            FROM Booking b WHERE b.item.id = :itemId AND b.status IN :statuses""")
+    List<BookingInterval> findIntervalsByItemIdAndStatusIn(@Param("itemId") Long itemId, @Param("statuses") Collection<BookingStatus> statuses);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.item.owner.id = :userId OR b.booker.id = :userId ORDER BY b.id")
+    List<Long> findIdsByItemOwnerOrBooker(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT DISTINCT b.item.id FROM Booking b WHERE b.id IN :ids")
+    List<Long> findItemIdsByIdIn(@Param("ids") Collection<Long> ids);
+
     @Modifying
-    @Query("DELETE FROM Booking b WHERE b.item.id IN :itemIds")
-    void deleteAllByItemIdsIn(@Param("itemIds") List<Long> itemIds);
+    @Query("DELETE FROM Booking b WHERE b.id IN :ids")
+    void deleteAllByIdIn(@Param("ids") Collection<Long> ids);
 }
-
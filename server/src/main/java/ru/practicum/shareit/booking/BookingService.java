@@ -1,9 +1,11 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingCursorPage;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     BookingDto createBooking(Long userId, CreateBookingDto createBookingDto);
@@ -14,5 +16,20 @@ public interface BookingService {
 
     List<BookingDto> findAllUserBookingsWithState(Long userId, BookingServiceState state, Integer from, Integer size);
 
+    BookingCursorPage findAllUserBookingsAfterCursor(Long userId, BookingServiceState state, String cursor, Integer size);
+
     List<BookingDto> findAllBookingsOfUserItemsWithState(Long userId, BookingServiceState state);
+
+    List<BookingDto> findAllBookingsOfUserItemsWithState(Long userId, BookingServiceState state, Integer from, Integer size);
+
+    BookingCursorPage findAllBookingsOfUserItemsAfterCursor(Long userId, BookingServiceState state, String cursor, Integer size);
+
+    void streamAllBookingsOfUserItemsWithState(Long userId, BookingServiceState state, Consumer<BookingDto> consumer);
+
+    /**
+     * Проверки потоковой выгрузки, которые должны отработать до начала ответа: после первого байта статус уже не изменить.
+     */
+    void checkBookingsStream(Long userId, BookingServiceState state);
+
+    void checkEventsSubscriber(Long userId);
 }
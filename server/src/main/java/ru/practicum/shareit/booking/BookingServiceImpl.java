@@ -1,36 +1,56 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataAccessResourceFailureException;
-import org.springframework.data.domain.Page;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingCursorPage;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.events.BookingEventBroadcaster;
+import ru.practicum.shareit.booking.lock.ItemLockManager;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.overlap.BookingOverlapIndex;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserReferenceResolver;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingServiceImpl implements BookingService {
+    private static final Sort BOOKINGS_ORDER = Sort.by(Sort.Direction.DESC, "startDate").and(Sort.by(Sort.Direction.DESC, "id"));
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final BookingOverlapIndex overlapIndex;
+    private final ItemLockManager itemLocks;
+    private final EntityManager entityManager;
+    private final ItemBookingSummaryService summaryService;
+    private final UserReferenceResolver userReferences;
+    private final BookingEventBroadcaster bookingEvents;
 
     @Transactional
     @Override
@@ -41,7 +61,7 @@ public class BookingServiceImpl implements BookingService {
             return new NotFoundException("Item Id указан неверно");
         });
 
-        User booker = userRepository.findById(userId).orElseThrow(() -> {
+        User booker = userReferences.findReference(userId).orElseThrow(() -> {
             log.error("User с ID {} не найден", userId);
             return new NotFoundException("User Id указан неверно");
         });
@@ -56,8 +76,26 @@ public class BookingServiceImpl implements BookingService {
             throw new NotFoundException("Нельзя забронировать собственную вещь");
         }
 
+        itemLocks.lockUntilTransactionEnd(bookingItem.getId());
+        if (createBookingDto.getStart() != null && createBookingDto.getEnd() != null && createBookingDto.getEnd().isAfter(createBookingDto.getStart())) {
+            overlapIndex.findConflict(bookingItem.getId(), createBookingDto.getStart(), createBookingDto.getEnd()).ifPresent(conflictId -> {
+                log.warn("Бронирование Item ID: {} пересекается с бронированием ID: {}", bookingItem.getId(), conflictId);
+                throw new ConflictException("Вещь уже забронирована на указанный период");
+            });
+        }
+
         Booking createdBooking = BookingMapper.dtoToNewBooking(createBookingDto, bookingItem, booker);
-        Booking saved = bookingRepository.save(createdBooking);
+        Booking saved;
+        try {
+            saved = bookingRepository.save(createdBooking);
+        } catch (DataIntegrityViolationException e) {
+            if (BookingOverlapIndex.isOverlapViolation(e)) {
+                log.warn("БД отклонила пересекающееся бронирование Item ID: {}", bookingItem.getId());
+                throw new ConflictException("Вещь уже забронирована на указанный период");
+            }
+            throw e;
+        }
+        overlapIndex.track(saved);
 
         log.info("Бронирование создано успешно. ID: {}, Status: {}", saved.getId(), saved.getStatus());
         return BookingMapper.bookingToDto(saved, bookingItem, booker);
@@ -72,6 +110,11 @@ public class BookingServiceImpl implements BookingService {
             log.warn("Параметр approved не указан для бронирования ID: {}", bookingId);
             throw new IllegalArgumentException("Параметр approved обязателен");
         }
+        Long itemId = bookingRepository.findItemIdById(bookingId).orElseThrow(() -> {
+            log.error("Бронирование ID: {} не найдено", bookingId);
+            return new ValidationException("Бронирование не найдено или у вас нет прав на изменение статуса");
+        });
+        itemLocks.lockUntilTransactionEnd(itemId);
         Booking resultBooking = bookingRepository.findByIdAndItemOwnerId(bookingId, userId).orElseThrow(() -> {
             log.error("Бронирование ID: {} не найдено или пользователь ID: {} не является владельцем", bookingId, userId);
             return new ValidationException("Бронирование не найдено или у вас нет прав на изменение статуса");
@@ -84,13 +127,17 @@ public class BookingServiceImpl implements BookingService {
 
         BookingStatus newStatus = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
         resultBooking.setStatus(newStatus);
+        overlapIndex.track(resultBooking);
+        summaryService.markStale(itemId);
 
         log.info("Статус бронирования ID: {} изменен на: {}", bookingId, newStatus);
 
-        return BookingMapper.bookingToDto(bookingRepository.findWithBookerAndOwnerById(bookingId).orElseThrow(() -> {
+        BookingDto result = BookingMapper.bookingToDto(bookingRepository.findWithBookerAndOwnerById(bookingId).orElseThrow(() -> {
             log.error("Не удалось загрузить бронирование ID: {} после обновления", bookingId);
             return new DataAccessResourceFailureException("Этой ошибки произойти не должно.");
         }));
+        bookingEvents.publishAfterCommit(result, userId);
+        return result;
     }
 
     @Transactional(readOnly = true)
@@ -118,45 +165,78 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public List<BookingDto> findAllUserBookingsWithState(Long bookerId, BookingServiceState state, Integer from, Integer size) {
         log.info("Поиск всех бронирований пользователя ID: {} с фильтром: {}", bookerId, state);
+        Pageable pageable = PageRequest.of(from / size, size, BOOKINGS_ORDER);
+        Slice<Booking> filteredBookings = findUserBookingsSlice(bookerId, state, LocalDateTime.now(), pageable);
+        log.info("Найдено {} бронирований для пользователя ID: {} с фильтром: {}", filteredBookings.getNumberOfElements(), bookerId, state);
+        return filteredBookings.map(BookingMapper::bookingToDto).getContent();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BookingCursorPage findAllUserBookingsAfterCursor(Long bookerId, BookingServiceState state, String cursor, Integer size) {
+        log.info("Поиск бронирований пользователя ID: {} с фильтром: {} после курсора: {}", bookerId, state, cursor);
+        if (state == null) {
+            throw new IllegalArgumentException("State cannot be null");
+        }
         LocalDateTime now = LocalDateTime.now();
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "startDate"));
-        Page<Booking> filteredBookings;
+        Slice<Booking> filteredBookings;
+        if (cursor == null || cursor.isBlank()) {
+            filteredBookings = findUserBookingsSlice(bookerId, state, now, PageRequest.of(0, size, BOOKINGS_ORDER));
+        } else {
+            BookingCursor after = BookingCursor.decode(cursor);
+            Pageable limit = PageRequest.of(0, size);
+            filteredBookings = switch (state) {
+                case PAST -> bookingRepository.findBookerPastBookingsAfter(bookerId, now, after.startDate(), after.id(), limit);
+                case CURRENT -> bookingRepository.findBookerCurrentBookingsAfter(bookerId, now, after.startDate(), after.id(), limit);
+                case FUTURE -> bookingRepository.findBookerFutureBookingsAfter(bookerId, now, after.startDate(), after.id(), limit);
+                case WAITING -> bookingRepository.findBookerBookingsWithStatusAfter(bookerId, BookingStatus.WAITING, after.startDate(), after.id(), limit);
+                case REJECTED -> bookingRepository.findBookerBookingsWithStatusAfter(bookerId, BookingStatus.REJECTED, after.startDate(), after.id(), limit);
+                case ALL -> bookingRepository.findBookerBookingsAfter(bookerId, after.startDate(), after.id(), limit);
+            };
+        }
+        return toCursorPage(filteredBookings);
+    }
+
+    private Slice<Booking> findUserBookingsSlice(Long bookerId, BookingServiceState state, LocalDateTime now, Pageable pageable) {
         if (state == null) {
             throw new IllegalArgumentException("State cannot be null");
         }
         switch (state) {
             case PAST -> {
                 log.debug("Поиск завершенных бронирований для пользователя ID: {}", bookerId);
-                filteredBookings = bookingRepository.findAllByBooker_IdAndEndDateBefore(bookerId, now, pageable);
+                return bookingRepository.findAllByBooker_IdAndEndDateBefore(bookerId, now, pageable);
             }
             case CURRENT -> {
                 log.debug("Поиск текущих бронирований для пользователя ID: {}", bookerId);
-                filteredBookings = bookingRepository.findAllByBooker_IdAndStartDateBeforeAndEndDateAfter(bookerId, now, now, pageable);
+                return bookingRepository.findAllByBooker_IdAndStartDateBeforeAndEndDateAfter(bookerId, now, now, pageable);
             }
             case FUTURE -> {
                 log.debug("Поиск будущих бронирований для пользователя ID: {}", bookerId);
-                filteredBookings = bookingRepository.findAllByBooker_IdAndStartDateAfter(bookerId, now, pageable);
+                return bookingRepository.findAllByBooker_IdAndStartDateAfter(bookerId, now, pageable);
             }
             case WAITING -> {
                 log.debug("Поиск ожидающих бронирований для пользователя ID: {}", bookerId);
-                filteredBookings = bookingRepository.findAllByBooker_IdAndStatus(bookerId, BookingStatus.WAITING, pageable);
+                return bookingRepository.findAllByBooker_IdAndStatus(bookerId, BookingStatus.WAITING, pageable);
             }
             case REJECTED -> {
                 log.debug("Поиск отклоненных бронирований для пользователя ID: {}", bookerId);
-                filteredBookings = bookingRepository.findAllByBooker_IdAndStatus(bookerId, BookingStatus.REJECTED, pageable);
+                return bookingRepository.findAllByBooker_IdAndStatus(bookerId, BookingStatus.REJECTED, pageable);
             }
             case ALL -> {
                 log.debug("Поиск всех бронирований для пользователя ID: {}", bookerId);
-                filteredBookings = bookingRepository.findAllByBooker_Id(bookerId, pageable);
+                return bookingRepository.findAllByBooker_Id(bookerId, pageable);
             }
             default -> {
                 log.error("Указан неизвестный статус фильтра: {}", state);
                 throw new IllegalArgumentException("указан не существующий вариант параметра state");
             }
         }
+    }
 
-        log.info("Найдено {} бронирований для пользователя ID: {} с фильтром: {}", filteredBookings.getTotalElements(), bookerId, state);
-        return filteredBookings.map(BookingMapper::bookingToDto).getContent();
+    private static BookingCursorPage toCursorPage(Slice<Booking> slice) {
+        List<Booking> content = slice.getContent();
+        String nextCursor = slice.hasNext() && !content.isEmpty() ? BookingCursor.of(content.get(content.size() - 1)).encode() : null;
+        return new BookingCursorPage(content.stream().map(BookingMapper::bookingToDto).collect(Collectors.toList()), nextCursor);
     }
 
     @Transactional(readOnly = true)
@@ -205,4 +285,110 @@ public class BookingServiceImpl implements BookingService {
         log.info("Найдено {} бронирований вещей владельца ID: {} с фильтром: {}", relatedBookings.size(), ownerId, state);
         return relatedBookings.stream().map(BookingMapper::bookingToDto).collect(Collectors.toList());
     }
+
+    @Transactional(readOnly = true)
+    @Override
+    public List<BookingDto> findAllBookingsOfUserItemsWithState(Long ownerId, BookingServiceState state, Integer from, Integer size) {
+        log.info("Поиск бронирований вещей пользователя ID: {} с фильтром: {}, from: {}, size: {}", ownerId, state, from, size);
+        Slice<Booking> relatedBookings = findOwnerBookingsSlice(ownerId, state, LocalDateTime.now(), PageRequest.of(from / size, size, BOOKINGS_ORDER));
+        if (from == 0 && relatedBookings.isEmpty()) {
+            throw new NotFoundException("Вы не являетесь владельцем ни однйо вещи");
+        }
+        log.info("Найдено {} бронирований вещей владельца ID: {} с фильтром: {}", relatedBookings.getNumberOfElements(), ownerId, state);
+        return relatedBookings.map(BookingMapper::bookingToDto).getContent();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public BookingCursorPage findAllBookingsOfUserItemsAfterCursor(Long ownerId, BookingServiceState state, String cursor, Integer size) {
+        log.info("Поиск бронирований вещей пользователя ID: {} с фильтром: {} после курсора: {}", ownerId, state, cursor);
+        if (state == null) {
+            throw new IllegalArgumentException("State cannot be null");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (cursor == null || cursor.isBlank()) {
+            Slice<Booking> firstPage = findOwnerBookingsSlice(ownerId, state, now, PageRequest.of(0, size, BOOKINGS_ORDER));
+            if (firstPage.isEmpty()) {
+                throw new NotFoundException("Вы не являетесь владельцем ни однйо вещи");
+            }
+            return toCursorPage(firstPage);
+        }
+        BookingCursor after = BookingCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size);
+        Slice<Booking> relatedBookings = switch (state) {
+            case PAST -> bookingRepository.findOwnerPastBookingsAfter(ownerId, now, after.startDate(), after.id(), limit);
+            case CURRENT -> bookingRepository.findOwnerCurrentBookingsAfter(ownerId, now, after.startDate(), after.id(), limit);
+            case FUTURE -> bookingRepository.findOwnerFutureBookingsAfter(ownerId, now, after.startDate(), after.id(), limit);
+            case WAITING -> bookingRepository.findOwnerBookingsWithStatusAfter(ownerId, BookingStatus.WAITING, after.startDate(), after.id(), limit);
+            case REJECTED -> bookingRepository.findOwnerBookingsWithStatusAfter(ownerId, BookingStatus.REJECTED, after.startDate(), after.id(), limit);
+            case ALL -> bookingRepository.findOwnerBookingsAfter(ownerId, after.startDate(), after.id(), limit);
+        };
+        return toCursorPage(relatedBookings);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void streamAllBookingsOfUserItemsWithState(Long ownerId, BookingServiceState state, Consumer<BookingDto> consumer) {
+        log.info("Потоковая выгрузка бронирований вещей пользователя ID: {} с фильтром: {}", ownerId, state);
+        if (state == null) {
+            throw new IllegalArgumentException("State cannot be null");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Sort sort = BOOKINGS_ORDER;
+        Stream<Booking> bookings = switch (state) {
+            case PAST -> bookingRepository.streamAllByItem_Owner_IdAndEndDateBefore(ownerId, now, sort);
+            case CURRENT -> bookingRepository.streamAllByItem_Owner_IdAndStartDateBeforeAndEndDateAfter(ownerId, now, now, sort);
+            case FUTURE -> bookingRepository.streamAllByItem_Owner_IdAndStartDateAfter(ownerId, now, sort);
+            case WAITING -> bookingRepository.streamAllByItem_Owner_IdAndStatus(ownerId, BookingStatus.WAITING, sort);
+            case REJECTED -> bookingRepository.streamAllByItem_Owner_IdAndStatus(ownerId, BookingStatus.REJECTED, sort);
+            case ALL -> bookingRepository.streamAllByItem_Owner_Id(ownerId, sort);
+        };
+        long written = 0;
+        try (bookings) {
+            Iterator<Booking> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                consumer.accept(BookingMapper.bookingToDto(iterator.next()));
+                if (++written % STREAM_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        log.info("Выгружено {} бронирований вещей владельца ID: {} с фильтром: {}", written, ownerId, state);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void checkBookingsStream(Long userId, BookingServiceState state) {
+        if (state == null) {
+            throw new IllegalArgumentException("State cannot be null");
+        }
+        checkEventsSubscriber(userId);
+        // та же проверка, что у постраничного и курсорного режимов /owner: пустая выборка - 404, а не 200 []
+        if (findOwnerBookingsSlice(userId, state, LocalDateTime.now(), PageRequest.of(0, 1, BOOKINGS_ORDER)).isEmpty()) {
+            throw new NotFoundException("Вы не являетесь владельцем ни однйо вещи");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void checkEventsSubscriber(Long userId) {
+        if (userReferences.findReference(userId).isEmpty()) {
+            log.error("User с ID {} не найден", userId);
+            throw new NotFoundException("User Id указан неверно");
+        }
+    }
+
+    private Slice<Booking> findOwnerBookingsSlice(Long ownerId, BookingServiceState state, LocalDateTime now, Pageable pageable) {
+        if (state == null) {
+            throw new IllegalArgumentException("State cannot be null");
+        }
+        return switch (state) {
+            case PAST -> bookingRepository.findAllByItem_Owner_IdAndEndDateBefore(ownerId, now, pageable);
+            case CURRENT -> bookingRepository.findAllByItem_Owner_IdAndStartDateBeforeAndEndDateAfter(ownerId, now, now, pageable);
+            case FUTURE -> bookingRepository.findAllByItem_Owner_IdAndStartDateAfter(ownerId, now, pageable);
+            case WAITING -> bookingRepository.findAllByItem_Owner_IdAndStatus(ownerId, BookingStatus.WAITING, pageable);
+            case REJECTED -> bookingRepository.findAllByItem_Owner_IdAndStatus(ownerId, BookingStatus.REJECTED, pageable);
+            case ALL -> bookingRepository.findAllByItem_Owner_Id(ownerId, pageable);
+        };
+    }
 }
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Позиция последнего бронирования страницы в порядке (startDate DESC, id DESC); кодирование - {@link KeysetCursor}.
+ */
+public record BookingCursor(LocalDateTime startDate, Long id) {
+    public static final String NEXT_CURSOR_HEADER = KeysetCursor.NEXT_CURSOR_HEADER;
+
+    public static BookingCursor of(Booking booking) {
+        return from(KeysetCursor.of(booking.getStartDate(), booking.getId()));
+    }
+
+    public static BookingCursor decode(String cursor) {
+        return from(KeysetCursor.decode(cursor));
+    }
+
+    public String encode() {
+        return new KeysetCursor(startDate, id).encode();
+    }
+
+    private static BookingCursor from(KeysetCursor cursor) {
+        return new BookingCursor(cursor.position(), cursor.id());
+    }
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Последнее (LAST) или ближайшее (NEXT) подтверждённое бронирование вещи.
+ */
+public interface ItemBookingBoundary {
+    String LAST = "LAST";
+    String NEXT = "NEXT";
+
+    Long getItemId();
+
+    String getKind();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+}
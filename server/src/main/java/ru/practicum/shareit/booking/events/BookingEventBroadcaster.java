@@ -0,0 +1,209 @@
+package ru.practicum.shareit.booking.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.transaction.TransactionCallbacks;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Рассылка изменений статуса бронирования по SSE арендатору и владельцу вещи. У каждого подключения
+ * своя очередь на buffer-size событий; публикация только кладёт событие в очереди и не ждёт сети.
+ * Очередь разбирает виртуальный поток, не более одного на подключение одновременно: запись в сервлет блокирующая,
+ * и клиент с заполненным TCP-окном не должен занимать общий пул и задерживать доставку остальным.
+ * Медленным считается подключение, чья очередь переполнена или чья отправка идёт дольше send-timeout;
+ * такое подключение закрывается - клиент переподключится и дочитает актуальное состояние через GET /bookings/{id}.
+ * Пульс раз в heartbeat-interval держит прокси открытыми и находит оборванные соединения.
+ * <p>
+ * SseEventBuilder изменяемый и не потокобезопасный: build() дописывает перевод строки при каждом вызове.
+ * Поэтому событие собирается один раз, и в очереди подписчиков кладётся уже готовый неизменяемый набор частей.
+ */
+@Slf4j
+@Component
+public class BookingEventBroadcaster {
+    static final String EVENT_NAME = "booking";
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final int bufferSize;
+    private final Duration timeout;
+    private final long sendTimeoutNanos;
+    private final ExecutorService senders;
+    private final ScheduledExecutorService heartbeat;
+    private final Counter dropped;
+
+    public BookingEventBroadcaster(@Value("${shareit.bookings.events.buffer-size:32}") int bufferSize,
+                                   @Value("${shareit.bookings.events.timeout:PT30M}") Duration timeout,
+                                   @Value("${shareit.bookings.events.heartbeat-interval:PT15S}") Duration heartbeatInterval,
+                                   @Value("${shareit.bookings.events.send-timeout:PT5S}") Duration sendTimeout,
+                                   MeterRegistry meterRegistry) {
+        this.bufferSize = bufferSize;
+        this.timeout = timeout;
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("booking-events-", 0).factory());
+        this.heartbeat = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("booking-events-heartbeat").daemon().factory());
+        this.heartbeat.scheduleWithFixedDelay(this::sendHeartbeat, heartbeatInterval.toMillis(), heartbeatInterval.toMillis(), TimeUnit.MILLISECONDS);
+        this.heartbeat.scheduleWithFixedDelay(this::dropStuckSenders, sendTimeout.toMillis(), sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        this.dropped = Counter.builder("shareit.bookings.events.dropped.subscribers").register(meterRegistry);
+        Gauge.builder("shareit.bookings.events.subscribers", subscriberCount, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(long userId) {
+        return register(userId, new SseEmitter(timeout.toMillis()));
+    }
+
+    SseEmitter register(long userId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(bufferSize));
+        // добавление и удаление опустевшего набора идут внутри операций над ключом: иначе переподключившийся
+        // подписчик мог попасть в набор, который remove в тот же момент выбрасывает из карты
+        subscribers.compute(userId, (id, current) -> {
+            Set<Subscriber> userSubscribers = current != null ? current : ConcurrentHashMap.newKeySet();
+            userSubscribers.add(subscriber);
+            return userSubscribers;
+        });
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(error -> remove(subscriber));
+        log.debug("Подписка на события бронирований пользователя ID: {}", userId);
+        return emitter;
+    }
+
+    /**
+     * Событие уходит арендатору и владельцу вещи только после коммита: подписчик не должен увидеть откатанный статус.
+     */
+    public void publishAfterCommit(BookingDto booking, long ownerId) {
+        long bookerId = booking.getBooker().getId();
+        TransactionCallbacks.afterCommit(() -> {
+            Set<ResponseBodyEmitter.DataWithMediaType> event = Collections.unmodifiableSet(
+                    SseEmitter.event().name(EVENT_NAME).id(booking.getId() + ":" + booking.getStatus()).data(booking).build());
+            publish(bookerId, event);
+            if (ownerId != bookerId) {
+                publish(ownerId, event);
+            }
+        });
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        senders.shutdownNow();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> subscriber.emitter().complete()));
+    }
+
+    private void publish(long userId, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        Set<Subscriber> userSubscribers = subscribers.get(userId);
+        if (userSubscribers != null) {
+            userSubscribers.forEach(subscriber -> offer(subscriber, event));
+        }
+    }
+
+    private void sendHeartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> ping = Collections.unmodifiableSet(SseEmitter.event().comment("ping").build());
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> offer(subscriber, ping)));
+    }
+
+    private void dropStuckSenders() {
+        long now = System.nanoTime();
+        subscribers.values().forEach(userSubscribers -> userSubscribers.forEach(subscriber -> {
+            long started = subscriber.sendStartedAt().get();
+            if (started != 0 && now - started > sendTimeoutNanos) {
+                drop(subscriber, "отправка дольше send-timeout");
+            }
+        }));
+    }
+
+    private void offer(Subscriber subscriber, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        if (!subscriber.queue().offer(event)) {
+            drop(subscriber, "очередь переполнена");
+            return;
+        }
+        if (subscriber.draining().compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Set<ResponseBodyEmitter.DataWithMediaType> event;
+            while ((event = subscriber.queue().poll()) != null) {
+                subscriber.sendStartedAt().set(System.nanoTime());
+                subscriber.emitter().send(event);
+                subscriber.sendStartedAt().set(0);
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Подписчик событий бронирований пользователя ID: {} отключился: {}", subscriber.userId(), e.getMessage());
+            remove(subscriber);
+            subscriber.queue().clear();
+            return;
+        } finally {
+            subscriber.sendStartedAt().set(0);
+            subscriber.draining().set(false);
+        }
+        // событие могло прийти между последним poll и сбросом флага
+        if (!subscriber.queue().isEmpty() && subscriber.draining().compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscriber));
+        }
+    }
+
+    /**
+     * Закрытие уходит в отдельный поток: emitter может ждать завершения зависшей отправки,
+     * а вызывающий - публикация после коммита или планировщик пульса.
+     */
+    private void drop(Subscriber subscriber, String reason) {
+        if (!remove(subscriber)) {
+            return;
+        }
+        dropped.increment();
+        log.warn("Подписчик событий бронирований пользователя ID: {} не успевает читать ({}), соединение закрыто", subscriber.userId(), reason);
+        subscriber.queue().clear();
+        senders.execute(() -> subscriber.emitter().complete());
+    }
+
+    private boolean remove(Subscriber subscriber) {
+        AtomicBoolean removed = new AtomicBoolean();
+        subscribers.computeIfPresent(subscriber.userId(), (id, current) -> {
+            removed.set(current.remove(subscriber));
+            return current.isEmpty() ? null : current;
+        });
+        if (removed.get()) {
+            subscriberCount.decrementAndGet();
+        }
+        return removed.get();
+    }
+
+
+    private record Subscriber(long userId, SseEmitter emitter, Queue<Set<ResponseBodyEmitter.DataWithMediaType>> queue,
+                              AtomicBoolean draining, AtomicLong sendStartedAt) {
+
+        Subscriber(long userId, SseEmitter emitter, Queue<Set<ResponseBodyEmitter.DataWithMediaType>> queue) {
+            this(userId, emitter, queue, new AtomicBoolean(), new AtomicLong());
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ru.practicum.shareit.booking.lock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Полосатые блокировки по ID вещи: запись бронирований одной вещи сериализуется,
+ * разные вещи попадают в разные полосы и почти не конкурируют.
+ * Блокировка держится до завершения транзакции, чтобы следующий писатель увидел закоммиченные данные.
+ */
+@Component
+public class ItemLockManager {
+    private final ReentrantLock[] stripes;
+
+    public ItemLockManager(@Value("${shareit.booking.lock-stripes:256}") int stripeCount) {
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public void lockUntilTransactionEnd(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи возможна только внутри транзакции");
+        }
+        ReentrantLock lock = stripeFor(itemId);
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    ReentrantLock stripeFor(Long itemId) {
+        int hash = Long.hashCode(itemId);
+        hash ^= (hash >>> 16);
+        return stripes[hash & (stripes.length - 1)];
+    }
+}
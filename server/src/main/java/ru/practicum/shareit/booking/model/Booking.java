@@ -5,6 +5,7 @@ import lombok.*;
 import org.hibernate.annotations.Check;
 import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.summary.BookingSummaryListener;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
@@ -17,6 +18,7 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "bookings")
 @Check(constraints = "end_date > start_date")
+@EntityListeners(BookingSummaryListener.class)
 @NoArgsConstructor
 public class Booking {
     @EqualsAndHashCode.Include
@@ -33,6 +35,8 @@ public class Booking {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", nullable = false)
     private Item item;
-    @Enumerated
+    @Enumerated(EnumType.STRING)
     private BookingStatus status;
+    @Version
+    private Long version;
 }
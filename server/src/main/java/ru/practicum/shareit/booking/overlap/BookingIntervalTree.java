@@ -0,0 +1,202 @@
+package ru.practicum.shareit.booking.overlap;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * AVL-дерево интервалов бронирований одной вещи, дополненное минимальной и максимальной датой окончания в поддереве.
+ * Интервалы полуоткрытые: [start, end). Вставка, удаление и поиск пересечения - O(log n),
+ * удаление k закончившихся интервалов - O(k log n).
+ * Класс не потокобезопасен, синхронизация на стороне {@link BookingOverlapIndex}.
+ */
+public class BookingIntervalTree {
+    private final Map<Long, LocalDateTime> startsByBookingId = new HashMap<>();
+    private Node root;
+
+    public int size() {
+        return startsByBookingId.size();
+    }
+
+    public void put(long bookingId, LocalDateTime start, LocalDateTime end) {
+        remove(bookingId);
+        root = insert(root, new Node(bookingId, start, end));
+        startsByBookingId.put(bookingId, start);
+    }
+
+    public boolean remove(long bookingId) {
+        LocalDateTime start = startsByBookingId.remove(bookingId);
+        if (start == null) {
+            return false;
+        }
+        root = delete(root, start, bookingId);
+        return true;
+    }
+
+    /**
+     * Удаляет интервалы, закончившиеся к моменту now: новое бронирование не может начаться в прошлом,
+     * и без этого дерево вещи росло бы всё время жизни процесса.
+     */
+    public int removeEndedBy(LocalDateTime now) {
+        List<Long> ended = new ArrayList<>();
+        collectEndedBy(root, now, ended);
+        ended.forEach(this::remove);
+        return ended.size();
+    }
+
+    public Optional<Long> findOverlapping(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (node.start.isBefore(end) && node.end.isAfter(start)) {
+                return Optional.of(node.bookingId);
+            }
+            node = (node.left != null && node.left.maxEnd.isAfter(start)) ? node.left : node.right;
+        }
+        return Optional.empty();
+    }
+
+    private static void collectEndedBy(Node node, LocalDateTime now, List<Long> ended) {
+        if (node == null || node.minEnd.isAfter(now)) {
+            return;
+        }
+        if (!node.end.isAfter(now)) {
+            ended.add(node.bookingId);
+        }
+        collectEndedBy(node.left, now, ended);
+        collectEndedBy(node.right, now, ended);
+    }
+
+    private static int compare(LocalDateTime start, long bookingId, Node node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : Long.compare(bookingId, node.bookingId);
+    }
+
+    private static Node insert(Node node, Node created) {
+        if (node == null) {
+            return created;
+        }
+        if (compare(created.start, created.bookingId, node) < 0) {
+            node.left = insert(node.left, created);
+        } else {
+            node.right = insert(node.right, created);
+        }
+        return balance(node);
+    }
+
+    private static Node delete(Node node, LocalDateTime start, long bookingId) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, bookingId, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, start, bookingId);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, start, bookingId);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = deleteMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private static Node deleteMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+        LocalDateTime minEnd = node.end;
+        if (node.left != null && node.left.minEnd.isBefore(minEnd)) {
+            minEnd = node.left.minEnd;
+        }
+        if (node.right != null && node.right.minEnd.isBefore(minEnd)) {
+            minEnd = node.right.minEnd;
+        }
+        node.minEnd = minEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static final class Node {
+        private final long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private LocalDateTime maxEnd;
+        private LocalDateTime minEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+            this.minEnd = end;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.booking.overlap;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.transaction.TransactionCallbacks;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory индекс активных (WAITING/APPROVED) бронирований по вещам.
+ * Дерево вещи загружается из БД при первом обращении и обновляется только после коммита транзакции;
+ * закончившиеся бронирования выпадают из дерева при поиске.
+ * Изменения, закоммиченные другим экземпляром, дерево не видит. Пропущенное пересечение отсекает
+ * exclusion-ограничение EX_BOOKING_OVERLAP из миграции V2__booking_item_query_indexes.sql, а ложное -
+ * после отмены или отклонения на другом экземпляре - снимается перезагрузкой дерева из БД перед отказом.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookingOverlapIndex {
+    public static final Set<BookingStatus> BLOCKING_STATUSES = Collections.unmodifiableSet(EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED));
+    private static final String OVERLAP_CONSTRAINT = "ex_booking_overlap";
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, BookingIntervalTree> treesByItemId = new ConcurrentHashMap<>();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Вызывается под блокировкой вещи из ItemLockManager, поэтому дерево вещи грузится без computeIfAbsent:
+     * тот держит монитор корзины ConcurrentHashMap, и запрос к БД под ним закреплял бы виртуальный поток.
+     * Пересечение, найденное в закэшированном дереве, перепроверяется по свежему дереву из БД.
+     */
+    public Optional<Long> findConflict(Long itemId, LocalDateTime start, LocalDateTime end) {
+        BookingIntervalTree tree = treesByItemId.get(itemId);
+        boolean cached = tree != null;
+        if (!cached) {
+            tree = reload(itemId);
+        }
+        Optional<Long> conflict = findOverlapping(tree, start, end);
+        if (conflict.isPresent() && cached) {
+            log.debug("Перепроверка пересечения Item ID: {} с бронированием ID: {} по БД", itemId, conflict.get());
+            conflict = findOverlapping(reload(itemId), start, end);
+        }
+        return conflict;
+    }
+
+    public void track(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        long bookingId = booking.getId();
+        LocalDateTime start = booking.getStartDate();
+        LocalDateTime end = booking.getEndDate();
+        boolean blocking = BLOCKING_STATUSES.contains(booking.getStatus());
+        TransactionCallbacks.afterCommit(() -> treesByItemId.computeIfPresent(itemId, (id, tree) -> {
+            synchronized (tree) {
+                if (blocking) {
+                    tree.put(bookingId, start, end);
+                } else {
+                    tree.remove(bookingId);
+                }
+            }
+            return tree;
+        }));
+    }
+
+    public void evictItems(Collection<Long> itemIds) {
+        TransactionCallbacks.afterCommit(() -> {
+            evictions.incrementAndGet();
+            itemIds.forEach(treesByItemId::remove);
+        });
+    }
+
+    public void evictAll() {
+        TransactionCallbacks.afterCommit(() -> {
+            evictions.incrementAndGet();
+            treesByItemId.clear();
+        });
+    }
+
+    public static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase().contains(OVERLAP_CONSTRAINT);
+    }
+
+    /**
+     * Вытеснение не берёт блокировку вещи (UserPurgeWorker), поэтому загруженное дерево ставится в карту,
+     * только если за время загрузки вытеснений не было; иначе оно могло устареть и грузится заново.
+     */
+    private BookingIntervalTree reload(Long itemId) {
+        while (true) {
+            long observed = evictions.get();
+            BookingIntervalTree loaded = load(itemId);
+            if (treesByItemId.compute(itemId, (id, current) -> evictions.get() == observed ? loaded : current) == loaded) {
+                return loaded;
+            }
+        }
+    }
+
+    private static Optional<Long> findOverlapping(BookingIntervalTree tree, LocalDateTime start, LocalDateTime end) {
+        synchronized (tree) {
+            tree.removeEndedBy(LocalDateTime.now());
+            return tree.findOverlapping(start, end);
+        }
+    }
+
+    private BookingIntervalTree load(Long itemId) {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        for (BookingInterval interval : bookingRepository.findIntervalsByItemIdAndStatusIn(itemId, BLOCKING_STATUSES)) {
+            tree.put(interval.bookingId(), interval.start(), interval.end());
+        }
+        log.debug("Загружен индекс бронирований для Item ID: {}, интервалов: {}", itemId, tree.size());
+        return tree;
+    }
+}
@@ -0,0 +1,75 @@
+package ru.practicum.shareit.http;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * ETag и Cache-Control для GET /items/{id}, /users/{id} и /requests/all, ответы которых кэширует шлюз.
+ * ETag считает ShallowEtagHeaderFilter по телу: ответ по-прежнему строится, но на совпавший If-None-Match
+ * уходит 304 без тела. max-age - сколько шлюз отдаёт ответ без перепроверки; Vary: X-Sharer-User-Id,
+ * потому что вид вещи и лента запросов зависят от пользователя. Ошибки заголовков кэширования не получают.
+ * Шаблоны сервлетных фильтров не отличают /items/{id} от /items/search, поэтому путь сверяется внутри фильтров:
+ * списки, поиск и подсказки не должны буферизоваться и попадать в кэши клиентов за шлюзом.
+ */
+@Configuration
+public class HttpCacheConfig {
+    private static final Pattern CACHED_PATHS = Pattern.compile("/(items|users)/\\d+|/requests/all");
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter() {
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                return !isCachedGet(request);
+            }
+        });
+        registration.setOrder(0);
+        return registration;
+    }
+
+    /**
+     * Выполняется внутри etagFilter: тело ещё в буфере, поэтому заголовки можно выставить по статусу ответа.
+     * maxAge - предел устаревания в кэше шлюза для записей, прошедших мимо его экземпляра (см. GatewayResponseCache).
+     */
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> cacheControlFilter(@Value("${shareit.http.cache.max-age:PT10S}") Duration maxAge) {
+        String cacheControl = CacheControl.maxAge(maxAge).getHeaderValue();
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+                chain.doFilter(request, response);
+                if (response.getStatus() == HttpServletResponse.SC_OK) {
+                    response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+                    response.setHeader(HttpHeaders.VARY, "X-Sharer-User-Id");
+                }
+            }
+
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                return !isCachedGet(request);
+            }
+        });
+        registration.setOrder(1);
+        return registration;
+    }
+
+    static boolean isCachedGet(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return HttpMethod.GET.matches(request.getMethod()) && CACHED_PATHS.matcher(path).matches();
+    }
+}
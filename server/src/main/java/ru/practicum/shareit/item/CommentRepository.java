@@ -1,17 +1,28 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    @EntityGraph(attributePaths = {"author"})
-    List<Comment> findAllByItem_Id(Long id);
+    @Query("""
+            SELECT new ru.practicum.shareit.item.dto.CommentDto(c.id, c.text, a.name, c.created)
+            FROM Comment c JOIN c.author a WHERE c.item.id = :itemId ORDER BY c.created""")
+    List<CommentDto> findDtosByItemId(@Param("itemId") Long itemId);
 
-    @Query("SELECT c FROM Comment c JOIN FETCH c.item WHERE c.item.id IN :itemIds")
-    List<Comment> findAllByItemIdsIn(@Param("itemIds") List<Long> itemIds);
+    @Query("SELECT c FROM Comment c JOIN FETCH c.author WHERE c.item.owner.id = :ownerId ORDER BY c.created")
+    List<Comment> findAllByItemOwnerIdWithAuthor(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT c.id FROM Comment c LEFT JOIN c.item i WHERE i.owner.id = :userId OR c.author.id = :userId ORDER BY c.id")
+    List<Long> findIdsByItemOwnerOrAuthor(@Param("userId") Long userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Comment c WHERE c.id IN :ids")
+    void deleteAllByIdIn(@Param("ids") List<Long> ids);
 }
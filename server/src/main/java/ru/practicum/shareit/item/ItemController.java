@@ -16,7 +16,7 @@ public class ItemController {
     private final ItemService itemService;
 
     @GetMapping
-    public ResponseEntity<Collection<ItemDto>> findAllItems(@RequestHeader(value = "X-Sharer-User-Id") Long userId) {
+    public ResponseEntity<Collection<ItemDtoWithMultipleBookings>> findAllItems(@RequestHeader(value = "X-Sharer-User-Id") Long userId) {
         return ResponseEntity.ok(itemService.findAllUsersItems(userId));
     }
 
@@ -37,8 +37,13 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Collection<UpdateItemDto>> searchItem(@RequestParam String text) {
-        return ResponseEntity.ok(itemService.searchItem(text));
+    public ResponseEntity<Collection<UpdateItemDto>> searchItem(@RequestParam String text, @RequestParam(defaultValue = "0") int from, @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(itemService.searchItem(text, from, size != null ? size : Integer.MAX_VALUE));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Collection<String>> suggestItemNames(@RequestParam String prefix, @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(itemService.suggestItemNames(prefix, size));
     }
 
     @PostMapping("/{itemId}/comment")
@@ -1,12 +1,10 @@
 package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.booking.dto.ShortBookingDto;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,27 +30,24 @@ public class ItemMapper {
         return Item.builder().name(createItemDto.getName()).description(createItemDto.getDescription()).available(createItemDto.getAvailable()).build();
     }
 
-    public static ItemDtoWithDatesAndComments itemToDtoWithDatesAndComments(Item item, LocalDateTime start, LocalDateTime end, List<Comment> comments, Long reqId) {
-        List<CommentDto> dtos = comments.stream().map(comment -> CommentMapper.commentToDto(comment, comment.getAuthor().getName())).collect(Collectors.toList());
-        return ItemDtoWithDatesAndComments.builder().id(item.getId()).name(item.getName()).description(item.getDescription()).available(item.getAvailable()).start(start).end(end).ownerId(item.getOwner().getId()).comments(dtos).requestId(reqId).build();
-    }
-
     public static UpdateItemDto itemToUpdateDto(Item resultItem, Long reqId) {
         return UpdateItemDto.builder().id(resultItem.getId()).name(resultItem.getName()).description(resultItem.getDescription()).available(resultItem.getAvailable()).requestId(reqId).build();
     }
 
-    public static ItemDtoWithMultipleBookings itemToDtoWithMultipleBookings(Item item, Booking lastBooking, Booking nextBooking, List<Comment> comments, Long reqId) {
+    public static ItemDtoWithMultipleBookings itemToDtoWithBookingDates(Item item, ShortBookingDto lastBooking, ShortBookingDto nextBooking, List<Comment> comments, Long reqId) {
         List<CommentDto> dtos = comments.stream().map(comment -> CommentMapper.commentToDto(comment, comment.getAuthor().getName())).collect(Collectors.toList());
-        ShortBookingDto lastBookingDto = null;
-        if (lastBooking != null) {
-            lastBookingDto = ShortBookingDto.builder().start(lastBooking.getStartDate()).end(lastBooking.getEndDate()).build();
-        }
+        return ItemDtoWithMultipleBookings.builder().id(item.getId()).name(item.getName()).description(item.getDescription()).available(item.getAvailable()).lastBooking(lastBooking).nextBooking(nextBooking).comments(dtos).requestId(reqId).build();
+    }
 
+    public static ItemDtoWithMultipleBookings detailsToDtoWithMultipleBookings(ItemDetailsView details, boolean withBookings, List<CommentDto> comments) {
+        ShortBookingDto lastBookingDto = null;
         ShortBookingDto nextBookingDto = null;
-        if (nextBooking != null) {
-            nextBookingDto = ShortBookingDto.builder().start(nextBooking.getStartDate()).end(nextBooking.getEndDate()).build();
+        if (withBookings && details.getLastStart() != null) {
+            lastBookingDto = ShortBookingDto.builder().start(details.getLastStart()).end(details.getLastEnd()).build();
         }
-
-        return ItemDtoWithMultipleBookings.builder().id(item.getId()).name(item.getName()).description(item.getDescription()).available(item.getAvailable()).lastBooking(lastBookingDto).nextBooking(nextBookingDto).comments(dtos).requestId(reqId).build();
+        if (withBookings && details.getNextStart() != null) {
+            nextBookingDto = ShortBookingDto.builder().start(details.getNextStart()).end(details.getNextEnd()).build();
+        }
+        return ItemDtoWithMultipleBookings.builder().id(details.getId()).name(details.getName()).description(details.getDescription()).available(details.getAvailable()).lastBooking(lastBookingDto).nextBooking(nextBookingDto).comments(comments).requestId(details.getRequestId()).build();
     }
 }
@@ -1,38 +1,100 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.dto.ItemDetailsView;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.RequestItemView;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    @Query("""
-            SELECT i FROM Item i WHERE
-            LOWER(i.name) LIKE LOWER(CONCAT('%', :searchText, '%')) OR
-            LOWER(i.description) LIKE LOWER(CONCAT('%', :searchText, '%'))""")
-    List<Item> searchInNameOrDescription(@Param("searchText") String searchText);
+    @Query(value = """
+            SELECT i.id FROM items i, to_tsquery('simple', :query) q
+            WHERE i.available AND i.search_vector @@ q
+            ORDER BY ts_rank(i.search_vector, q) DESC, i.id
+            LIMIT :size OFFSET :from""", nativeQuery = true)
+    List<Long> searchAvailableIdsByTsQuery(@Param("query") String query, @Param("from") int from, @Param("size") int size);
+
+    @Query(value = """
+            SELECT i.id FROM items i
+            WHERE i.available AND (lower(i.name) LIKE :pattern OR lower(i.description) LIKE :pattern)
+            ORDER BY i.id
+            LIMIT :size OFFSET :from""", nativeQuery = true)
+    List<Long> searchAvailableIdsBySubstring(@Param("pattern") String pattern, @Param("from") int from, @Param("size") int size);
+
+    @Query(value = """
+            SELECT i.id FROM items i
+            WHERE i.available AND (:text <% lower(i.name) OR :text <% lower(i.description))
+            ORDER BY greatest(word_similarity(:text, lower(i.name)), word_similarity(:text, coalesce(lower(i.description), ''))) DESC, i.id
+            LIMIT :size OFFSET :from""", nativeQuery = true)
+    List<Long> searchAvailableIdsBySimilarity(@Param("text") String text, @Param("from") int from, @Param("size") int size);
 
-    @EntityGraph(attributePaths = {"owner"})
-    List<Item> findAllByOwner_Id(Long id);
+    List<Item> findAllByOwner_IdOrderByIdAsc(Long id);
 
-    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId")
-    List<Long> findAllIdsByOwner_Id(@Param("ownerId") Long ownerId);
+    @Query("SELECT i.id FROM Item i WHERE i.id > :afterId ORDER BY i.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
 
-    @EntityGraph(attributePaths = {"owner"})
-    Optional<Item> findWithOwnerById(Long id);
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId ORDER BY i.id")
+    List<Long> findIdsByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    /**
+     * Карточка вещи с last/next из item_booking_summary; valid_until позволяет вызывающему коду
+     * проверить, не устарела ли сводка. Вещи удалённого владельца не возвращаются: до фазы ITEMS
+     * очистки они ещё лежат в таблице, но карточка не должна показывать данные надгробия.
+     */
+    @Query(value = """
+            SELECT i.id AS "id", i.name AS "name", i.description AS "description", i.available AS "available",
+                   i.owner_id AS "ownerId", i.request_id AS "requestId",
+                   s.last_start AS "lastStart", s.last_end AS "lastEnd",
+                   s.next_start AS "nextStart", s.next_end AS "nextEnd", s.valid_until AS "validUntil"
+            FROM items i
+            JOIN users u ON u.id = i.owner_id AND u.deleted = FALSE
+            LEFT JOIN item_booking_summary s ON s.item_id = i.id
+            WHERE i.id = :itemId""", nativeQuery = true)
+    Optional<ItemDetailsView> findDetailsById(@Param("itemId") Long itemId);
+
+    @Query(value = """
+            SELECT i.id AS "id", i.name AS "name", i.description AS "description", i.available AS "available",
+                   i.owner_id AS "ownerId", i.request_id AS "requestId",
+                   lb.start_date AS "lastStart", lb.end_date AS "lastEnd",
+                   nb.start_date AS "nextStart", nb.end_date AS "nextEnd", CAST(NULL AS TIMESTAMP) AS "validUntil"
+            FROM items i
+            JOIN users u ON u.id = i.owner_id AND u.deleted = FALSE
+            LEFT JOIN bookings lb ON lb.id = (SELECT b.id FROM bookings b
+                                              WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.end_date < :now
+                                              ORDER BY b.end_date DESC LIMIT 1)
+            LEFT JOIN bookings nb ON nb.id = (SELECT b.id FROM bookings b
+                                              WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.start_date > :now
+                                              ORDER BY b.start_date LIMIT 1)
+            WHERE i.id = :itemId""", nativeQuery = true)
+    Optional<ItemDetailsView> findLiveDetailsById(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
 
     @Modifying
     @Query("DELETE FROM Item i WHERE i.id IN :itemIds")
     void deleteAllByIdIn(@Param("itemIds") List<Long> itemIds);
 
-    List<Item> findAllByRequestIdIn(List<Long> ids);
+    @Modifying
+    @Query("UPDATE Item i SET i.available = false WHERE i.owner.id = :ownerId")
+    void markUnavailableByOwnerId(@Param("ownerId") Long ownerId);
 
-    @Query("SELECT i FROM Item i WHERE i.request.id = :requestId")
-    List<Item> findAllByRequestId(@Param("requestId") Long requestId);
+    @Modifying
+    @Query("UPDATE Item i SET i.request = NULL WHERE i.request.id IN :requestIds")
+    void detachFromRequests(@Param("requestIds") List<Long> requestIds);
+
+    @Query("""
+            SELECT i.id AS itemId, i.name AS name, i.owner.id AS ownerId, i.request.id AS requestId
+            FROM Item i WHERE i.request.id IN :requestIds ORDER BY i.id""")
+    List<RequestItemView> findRequestItemsByRequestIdIn(@Param("requestIds") List<Long> requestIds);
+
+    @Query("""
+            SELECT i.id AS itemId, i.name AS name, i.owner.id AS ownerId, i.request.id AS requestId
+            FROM Item i WHERE i.request.id = :requestId ORDER BY i.id""")
+    List<RequestItemView> findRequestItemsByRequestId(@Param("requestId") Long requestId);
 }
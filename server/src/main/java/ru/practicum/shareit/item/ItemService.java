@@ -8,7 +8,7 @@ import java.util.Collection;
 public interface ItemService {
 
 
-    Collection<ItemDto> findAllUsersItems(Long userId);
+    Collection<ItemDtoWithMultipleBookings> findAllUsersItems(Long userId);
 
     ItemDtoWithMultipleBookings findItemById(Long userId, Long id);
 
@@ -20,6 +20,10 @@ public interface ItemService {
 
     Collection<UpdateItemDto> searchItem(String text);
 
+    Collection<UpdateItemDto> searchItem(String text, int from, int size);
+
+    Collection<String> suggestItemNames(String prefix, int size);
+
     CommentDto createComment(Long userId, Long itemId, CreateCommentDto createCommentDto);
 }
 
@@ -5,15 +5,25 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.dto.ItemBookingBoundary;
+import ru.practicum.shareit.booking.dto.ShortBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.overlap.BookingOverlapIndex;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.suggest.ItemNameSuggestIndex;
+import ru.practicum.shareit.item.summary.ItemBookingSummary;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.RequestRepository;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.request.match.ItemMatchIndex;
+import ru.practicum.shareit.user.UserReferenceResolver;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.validator.CentralValidator;
 
@@ -26,35 +36,58 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
     private final CentralValidator validator;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final BookingOverlapIndex overlapIndex;
+    private final ItemSearchEngine searchEngine;
+    private final ItemSearchCache searchCache;
+    private final ItemNameSuggestIndex suggestIndex;
+    private final ItemMatchIndex matchIndex;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final ItemBookingSummaryService summaryService;
+    private final UserReferenceResolver userReferences;
 
     private final RequestRepository requestRepository;
 
     @Transactional(readOnly = true)
     @Override
-    public Collection<ItemDto> findAllUsersItems(Long userId) {
+    public Collection<ItemDtoWithMultipleBookings> findAllUsersItems(Long userId) {
         log.info("Попытка получения списка всех вещей владельца с бронированиями и комментариями.");
-        List<Item> allByOwnerId = itemRepository.findAllByOwner_Id(userId);
-        List<ItemDto> result = new ArrayList<>();
-        Map<Long, Booking> bookingsOfUsersItems = bookingRepository.findAllByItem_Owner_Id(userId).stream().collect(Collectors.toMap(booking -> booking.getItem().getId(), booking -> booking));
-        List<Long> itemIds = bookingsOfUsersItems.keySet().stream().collect(Collectors.toList());
-        Map<Long, List<Comment>> itemsComments = commentRepository.findAllByItemIdsIn(itemIds).stream().collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
-        for (Item item : allByOwnerId) {
-            Booking currentItemBooking = bookingsOfUsersItems.get(item.getId());
-            if (currentItemBooking != null) {
-                List<Comment> currentItemComments = itemsComments.get(item.getId());
-                if (currentItemComments == null) {
-                    currentItemComments = Collections.emptyList();
+        List<Item> allByOwnerId = itemRepository.findAllByOwner_IdOrderByIdAsc(userId);
+        if (allByOwnerId.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, ShortBookingDto> lastBookings = new HashMap<>();
+        Map<Long, ShortBookingDto> nextBookings = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        List<ItemBookingSummary> summaries = summaryRepository.findAllByOwnerId(userId);
+        if (summaryService.isFresh(summaries, allByOwnerId.stream().map(Item::getId).toList(), now)) {
+            for (ItemBookingSummary summary : summaries) {
+                if (summary.getLastStart() != null) {
+                    lastBookings.put(summary.getItemId(), ShortBookingDto.builder().start(summary.getLastStart()).end(summary.getLastEnd()).build());
+                }
+                if (summary.getNextStart() != null) {
+                    nextBookings.put(summary.getItemId(), ShortBookingDto.builder().start(summary.getNextStart()).end(summary.getNextEnd()).build());
+                }
+            }
+        } else {
+            log.debug("Сводка бронирований владельца ID: {} устарела, расчёт по таблице bookings", userId);
+            for (ItemBookingBoundary boundary : bookingRepository.findLastAndNextApprovedByOwnerId(userId, now)) {
+                ShortBookingDto booking = ShortBookingDto.builder().start(boundary.getStartDate()).end(boundary.getEndDate()).build();
+                if (ItemBookingBoundary.LAST.equals(boundary.getKind())) {
+                    lastBookings.put(boundary.getItemId(), booking);
+                } else {
+                    nextBookings.put(boundary.getItemId(), booking);
                 }
-                Long requestId = (item.getRequest() != null) ? item.getRequest().getId() : null;
-                result.add(ItemMapper.itemToDtoWithDatesAndComments(item, currentItemBooking.getStartDate(), currentItemBooking.getEndDate(), currentItemComments, requestId));
-            } else {
-                result.add(ItemMapper.itemToDto(item));
             }
         }
+        Map<Long, List<Comment>> itemsComments = commentRepository.findAllByItemOwnerIdWithAuthor(userId).stream().collect(Collectors.groupingBy(comment -> comment.getItem().getId()));
+        List<ItemDtoWithMultipleBookings> result = new ArrayList<>(allByOwnerId.size());
+        for (Item item : allByOwnerId) {
+            Long requestId = (item.getRequest() != null) ? item.getRequest().getId() : null;
+            result.add(ItemMapper.itemToDtoWithBookingDates(item, lastBookings.get(item.getId()), nextBookings.get(item.getId()), itemsComments.getOrDefault(item.getId(), Collections.emptyList()), requestId));
+        }
         return result;
     }
 
@@ -65,18 +98,16 @@ public class ItemServiceImpl implements ItemService {
         if (id == null) {
             throw new ValidationException("отсутствует Id вещи");
         }
-        Item itemById = itemRepository.findWithOwnerById(id).orElseThrow(() -> new NotFoundException("item с Id" + id + "не найден"));
+        ItemDetailsView details = itemRepository.findDetailsById(id).orElseThrow(() -> new NotFoundException("item с Id" + id + "не найден"));
+        boolean withBookings = details.getOwnerId().equals(userId);
         LocalDateTime now = LocalDateTime.now();
-        Optional<Booking> lastBooking = bookingRepository.findLastBooking(id, now);
-        Optional<Booking> nextBooking = bookingRepository.findNextBooking(id, now);
-        List<Comment> comments = commentRepository.findAllByItem_Id(id);
-        log.info("Найдено комментариев для item_id {}: {}", id, comments.size());
-        Long requestId = (itemById.getRequest() != null) ? itemById.getRequest().getId() : null;
-        if (itemById.getOwner().getId().equals(userId)) {
-            return ItemMapper.itemToDtoWithMultipleBookings(itemById, lastBooking.orElse(null), nextBooking.orElse(null), comments, requestId);
-        } else {
-            return ItemMapper.itemToDtoWithMultipleBookings(itemById, null, null, comments, requestId);
+        if (withBookings && !summaryService.isFresh(id, details.getValidUntil(), now)) {
+            log.debug("Сводка бронирований Item ID: {} устарела, расчёт по таблице bookings", id);
+            details = itemRepository.findLiveDetailsById(id, now).orElseThrow(() -> new NotFoundException("item с Id" + id + "не найден"));
         }
+        List<CommentDto> comments = commentRepository.findDtosByItemId(id);
+        log.info("Найдено комментариев для item_id {}: {}", id, comments.size());
+        return ItemMapper.detailsToDtoWithMultipleBookings(details, withBookings, comments);
     }
 
     @Transactional
@@ -85,13 +116,15 @@ public class ItemServiceImpl implements ItemService {
         log.info("Попытка создания вещи пользователя ID: {}", userId);
         log.info("CreateItemDto requestId: {}", createItemDto.getRequestId());
         Item createdItem = ItemMapper.dtoToNewItem(createItemDto);
-        User userById = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("User с Id" + userId + "не найден"));
+        User userById = userReferences.findReference(userId).orElseThrow(() -> new NotFoundException("User с Id" + userId + "не найден"));
         createdItem.setOwner(userById);
         if (createItemDto.getRequestId() != null) {
             ItemRequest byId = requestRepository.findById(createItemDto.getRequestId()).orElseThrow(() -> new NotFoundException("Id запроса по которому создаётся Item указано неверно"));
             createdItem.setRequest(byId);
         }
         Item resultItem = itemRepository.save(createdItem);
+        suggestIndex.track(resultItem);
+        matchIndex.track(resultItem);
         return ItemMapper.itemToDto(resultItem);
     }
 
@@ -108,8 +141,12 @@ public class ItemServiceImpl implements ItemService {
         }
         Item existingItem = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException("Вещь не найдена"));
         validator.updatedItemAccess(existingItem, userId);
+        String previousText = ItemSearchCache.textOf(existingItem);
         Item updatedItem = ItemMapper.dtoUpdateExistingItem(existingItem, updateItemDto);
-        Item resultItem = itemRepository.save(updatedItem);
+        Item resultItem = itemRepository.saveAndFlush(updatedItem);
+        searchCache.invalidateMatching(previousText);
+        suggestIndex.track(resultItem);
+        matchIndex.track(resultItem);
         log.info("Успешное обновление вещи с ID: {}", itemId);
         Long reqId = null;
         if (resultItem.getRequest() != null) {
@@ -121,14 +158,26 @@ public class ItemServiceImpl implements ItemService {
     @Transactional(readOnly = true)
     @Override
     public Collection<UpdateItemDto> searchItem(String text) {
+        return searchItem(text, 0, Integer.MAX_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Collection<UpdateItemDto> searchItem(String text, int from, int size) {
         log.info("Запрос поиска...");
         if (text == null || text.isBlank()) {
             return Collections.emptyList();
         }
-        return itemRepository.searchInNameOrDescription(text).stream().filter(Item::getAvailable).map(item -> {
-            Long requestId = (item.getRequest() != null) ? item.getRequest().getId() : null;
-            return ItemMapper.itemToUpdateDto(item, requestId);
-        }).collect(Collectors.toList());
+        String query = ItemSearchCache.normalize(text);
+        return searchCache.get(query, from, size, () -> loadSearchPage(query, from, size));
+    }
+
+    @Override
+    public Collection<String> suggestItemNames(String prefix, int size) {
+        if (prefix == null || prefix.isBlank()) {
+            return Collections.emptyList();
+        }
+        return suggestIndex.suggest(prefix, size);
     }
 
     @Transactional
@@ -146,6 +195,18 @@ public class ItemServiceImpl implements ItemService {
         return CommentMapper.commentToDto(saved, authorName);
     }
 
+    private List<UpdateItemDto> loadSearchPage(String query, int from, int size) {
+        List<Long> foundIds = searchEngine.search(query, from, size);
+        if (foundIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Item> itemsById = itemRepository.findAllById(foundIds).stream().collect(Collectors.toMap(Item::getId, item -> item));
+        return foundIds.stream().map(itemsById::get).filter(Objects::nonNull).map(item -> {
+            Long requestId = (item.getRequest() != null) ? item.getRequest().getId() : null;
+            return ItemMapper.itemToUpdateDto(item, requestId);
+        }).collect(Collectors.toList());
+    }
+
     @Transactional
     @Override
     public void deleteItem(Long id) {
@@ -154,6 +215,10 @@ public class ItemServiceImpl implements ItemService {
         }
         Optional<Item> byId = itemRepository.findById(id);
         itemRepository.delete(byId.orElseThrow(() -> new NotFoundException("Вещь не найдена")));
+        overlapIndex.evictItems(List.of(id));
+        searchEngine.remove(id);
+        suggestIndex.untrack(List.of(id));
+        matchIndex.untrack(List.of(id));
         log.info("Вещь с ID {} удалена", id);
     }
 
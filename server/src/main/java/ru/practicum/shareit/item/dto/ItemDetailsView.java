@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Карточка вещи вместе с датами последнего и ближайшего подтверждённого бронирования, одной строкой.
+ * validUntil заполнен только у строки из item_booking_summary.
+ */
+public interface ItemDetailsView {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getOwnerId();
+
+    Long getRequestId();
+
+    LocalDateTime getLastStart();
+
+    LocalDateTime getLastEnd();
+
+    LocalDateTime getNextStart();
+
+    LocalDateTime getNextEnd();
+
+    LocalDateTime getValidUntil();
+}
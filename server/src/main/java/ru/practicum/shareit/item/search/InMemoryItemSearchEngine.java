@@ -0,0 +1,228 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Встроенный инвертированный индекс для H2 и тестов: термы названия и описания, поиск по префиксу термов.
+ * Общий индекс меняется только после коммита, поэтому другие транзакции не видят незакоммиченных вещей.
+ * До коммита изменения лежат в ресурсе транзакции и при поиске из неё же накладываются поверх индекса;
+ * при откате они просто отбрасываются.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "embedded", matchIfMissing = true)
+public class InMemoryItemSearchEngine implements ItemSearchEngine {
+    private static final int BOOTSTRAP_PAGE_SIZE = 1000;
+    private static final double NAME_WEIGHT = 2.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final double PREFIX_PENALTY = 0.5;
+
+    private final ItemRepository itemRepository;
+
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> postings = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        Page<Item> page;
+        int pageNumber = 0;
+        do {
+            page = itemRepository.findAll(PageRequest.of(pageNumber++, BOOTSTRAP_PAGE_SIZE, Sort.by("id")));
+            lock.writeLock().lock();
+            try {
+                page.forEach(item -> put(item.getId(), IndexedItem.of(item)));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } while (page.hasNext());
+        log.info("Поисковый индекс вещей построен, документов: {}", size());
+    }
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        List<String> queryTerms = SearchTokenizer.tokenize(text).stream().distinct().toList();
+        if (queryTerms.isEmpty() || size <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Optional<IndexedItem>> pending = pendingChanges();
+            Map<Long, Double> scores = null;
+            for (String queryTerm : queryTerms) {
+                Map<Long, Double> termScores = scoreTerm(queryTerm, pending);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((id, score) -> score + termScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.<Long, Double>comparingByKey()))
+                    .skip(from)
+                    .limit(size)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void index(Item item) {
+        stage(item.getId(), Optional.of(IndexedItem.of(item)));
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        stage(itemId, Optional.empty());
+    }
+
+    @Override
+    public void removeAll(Collection<Long> itemIds) {
+        itemIds.forEach(this::remove);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreTerm(String queryTerm, Map<Long, Optional<IndexedItem>> pending) {
+        Map<Long, Double> scores = new HashMap<>();
+        int documentCount = documents.size();
+        for (Map.Entry<String, Set<Long>> posting : postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+            String term = posting.getKey();
+            double idf = Math.log(1.0 + (double) documentCount / posting.getValue().size());
+            for (Long itemId : posting.getValue()) {
+                IndexedItem document = documents.get(itemId);
+                if (document.available() && !pending.containsKey(itemId)) {
+                    scores.merge(itemId, document.score(term, queryTerm, idf), Math::max);
+                }
+            }
+        }
+        pending.forEach((itemId, change) -> change.filter(IndexedItem::available).ifPresent(document -> {
+            for (String term : document.terms()) {
+                if (term.startsWith(queryTerm)) {
+                    Set<Long> ids = postings.getOrDefault(term, Set.of());
+                    double idf = Math.log(1.0 + (double) Math.max(documentCount, 1) / Math.max(ids.size(), 1));
+                    scores.merge(itemId, document.score(term, queryTerm, idf), Math::max);
+                }
+            }
+        }));
+        return scores;
+    }
+
+    private void put(Long itemId, IndexedItem document) {
+        delete(itemId);
+        documents.put(itemId, document);
+        for (String term : document.terms()) {
+            postings.computeIfAbsent(term, t -> new HashSet<>()).add(itemId);
+        }
+    }
+
+    private void delete(Long itemId) {
+        IndexedItem previous = documents.remove(itemId);
+        if (previous != null) {
+            for (String term : previous.terms()) {
+                Set<Long> ids = postings.get(term);
+                ids.remove(itemId);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private void stage(Long itemId, Optional<IndexedItem> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(Map.of(itemId, change));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<Long, Optional<IndexedItem>> pending = (Map<Long, Optional<IndexedItem>>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<Long, Optional<IndexedItem>> transactionPending = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, transactionPending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(transactionPending);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(InMemoryItemSearchEngine.this);
+                }
+            });
+            pending = transactionPending;
+        }
+        pending.put(itemId, change);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, Optional<IndexedItem>> pendingChanges() {
+        Map<Long, Optional<IndexedItem>> pending = (Map<Long, Optional<IndexedItem>>) TransactionSynchronizationManager.getResource(this);
+        return pending != null ? pending : Map.of();
+    }
+
+    private void apply(Map<Long, Optional<IndexedItem>> changes) {
+        lock.writeLock().lock();
+        try {
+            changes.forEach((itemId, change) -> change.ifPresentOrElse(document -> put(itemId, document), () -> delete(itemId)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private record IndexedItem(boolean available, Set<String> nameTerms, Set<String> terms) {
+
+        static IndexedItem of(Item item) {
+            Set<String> nameTerms = new HashSet<>(SearchTokenizer.tokenize(item.getName()));
+            Set<String> terms = new HashSet<>(nameTerms);
+            terms.addAll(SearchTokenizer.tokenize(item.getDescription()));
+            return new IndexedItem(Boolean.TRUE.equals(item.getAvailable()), nameTerms, terms);
+        }
+
+        double score(String term, String queryTerm, double idf) {
+            double fieldWeight = nameTerms.contains(term) ? NAME_WEIGHT : DESCRIPTION_WEIGHT;
+            double matchWeight = term.equals(queryTerm) ? 1.0 : PREFIX_PENALTY;
+            return fieldWeight * matchWeight * idf;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.UpdateItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Кэш страниц выдачи /items/search по нормализованному тексту запроса (Caffeine, W-TinyLFU, вес - число вещей).
+ * При изменении вещи удаляются только записи, в выдачу которых она могла попасть до или после изменения:
+ * страницы сгруппированы по тексту запроса, и mayMatch проверяется один раз на текст, а не на каждую страницу.
+ * Результаты из транзакций с незакоммиченными изменениями в кэш не кладутся, как и результаты,
+ * посчитанные параллельно с инвалидацией.
+ */
+@Component
+public class ItemSearchCache {
+    private final ItemSearchEngine searchEngine;
+    private final Cache<SearchKey, List<UpdateItemDto>> cache;
+    private final Map<String, Set<SearchKey>> keysByText = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemSearchCache(ItemSearchEngine searchEngine,
+                           @Value("${shareit.search.cache.max-weight:100000}") long maxWeight,
+                           @Value("${shareit.search.cache.ttl:10m}") Duration ttl,
+                           MeterRegistry meterRegistry) {
+        this.searchEngine = searchEngine;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((SearchKey key, List<UpdateItemDto> value) -> 1 + value.size())
+                .expireAfterWrite(ttl)
+                .evictionListener((SearchKey key, List<UpdateItemDto> value, RemovalCause cause) -> untrack(key))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "itemSearch");
+        Gauge.builder("shareit.items.search.cache.hit.ratio", cache, c -> c.stats().hitRate()).register(meterRegistry);
+    }
+
+    public List<UpdateItemDto> get(String text, int from, int size, Supplier<List<UpdateItemDto>> loader) {
+        SearchKey key = new SearchKey(text, from, size);
+        List<UpdateItemDto> cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        long observedGeneration = generation.get();
+        List<UpdateItemDto> loaded = List.copyOf(loader.get());
+        if (isCacheable() && generation.get() == observedGeneration) {
+            // ключ попадает в индекс атомарно с записью, чтобы вытеснение не разошлось с индексом;
+            // инвалидация, прошедшая между проверкой поколения и записью, могла не увидеть ключ
+            cache.asMap().compute(key, (k, previous) -> {
+                track(k);
+                return loaded;
+            });
+            if (generation.get() != observedGeneration) {
+                cache.invalidate(key);
+            }
+        }
+        return loaded;
+    }
+
+    public void invalidateMatching(String itemText) {
+        invalidateNowAndAfterCommit(() -> keysByText.keySet().forEach(text -> {
+            if (searchEngine.mayMatch(text, itemText)) {
+                Set<SearchKey> keys = keysByText.remove(text);
+                if (keys != null) {
+                    cache.invalidateAll(keys);
+                }
+            }
+        }));
+    }
+
+    public void invalidateAll() {
+        invalidateNowAndAfterCommit(() -> {
+            keysByText.clear();
+            cache.invalidateAll();
+        });
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    int indexedTextCount() {
+        return keysByText.size();
+    }
+
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    public static String normalize(String text) {
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    public static String textOf(Item item) {
+        return item.getName() + "\n" + (item.getDescription() != null ? item.getDescription() : "");
+    }
+
+    private void track(SearchKey key) {
+        keysByText.compute(key.text(), (text, keys) -> {
+            Set<SearchKey> textKeys = keys != null ? keys : ConcurrentHashMap.newKeySet();
+            textKeys.add(key);
+            return textKeys;
+        });
+    }
+
+    private void untrack(SearchKey key) {
+        keysByText.computeIfPresent(key.text(), (text, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static boolean isCacheable() {
+        return !TransactionSynchronizationManager.isActualTransactionActive() || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private void invalidateNowAndAfterCommit(Runnable invalidation) {
+        generation.incrementAndGet();
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                    invalidation.run();
+                }
+            });
+        }
+    }
+
+    private record SearchKey(String text, int from, int size) {
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Поиск доступных вещей по названию и описанию.
+ * Ранжирование, фильтр available и пагинация выполняются внутри движка, наружу отдаются только ID вещей.
+ */
+public interface ItemSearchEngine {
+
+    List<Long> search(String text, int from, int size);
+
+    void index(Item item);
+
+    void remove(Long itemId);
+
+    void removeAll(Collection<Long> itemIds);
+
+    /**
+     * Может ли вещь с таким текстом (название и описание) попасть в выдачу по запросу.
+     * Ложноположительный ответ допустим, ложноотрицательный - нет: на нём держится инвалидация {@link ItemSearchCache}.
+     */
+    default boolean mayMatch(String text, String itemText) {
+        String haystack = itemText.toLowerCase(Locale.ROOT);
+        return SearchTokenizer.tokenize(text).stream().allMatch(haystack::contains);
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Держит поисковый индекс и кэш выдачи в согласии с таблицей items при любых сохранениях сущности.
+ * UPDATE и DELETE Hibernate выполняет только при flush: updateItem поэтому сохраняет через saveAndFlush,
+ * а deleteItem обновляет индекс сам. Массовые JPQL-удаления сюда не попадают, их вызывающий код передаёт
+ * в {@link ItemSearchEngine#removeAll}.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemSearchIndexListener {
+    private final ObjectProvider<ItemSearchEngine> searchEngine;
+    private final ObjectProvider<ItemSearchCache> searchCache;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Item item) {
+        searchEngine.getObject().index(item);
+        searchCache.getObject().invalidateMatching(ItemSearchCache.textOf(item));
+    }
+
+    @PostRemove
+    public void onRemove(Item item) {
+        searchEngine.getObject().remove(item.getId());
+        searchCache.getObject().invalidateMatching(ItemSearchCache.textOf(item));
+    }
+}
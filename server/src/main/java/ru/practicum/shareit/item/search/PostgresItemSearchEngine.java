@@ -0,0 +1,45 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Полнотекстовый поиск на стороне PostgreSQL: сгенерированная колонка items.search_vector и GIN-индекс.
+ * Колонку поддерживает сама БД, поэтому операции индексации здесь пустые.
+ * По умолчанию выбран trigram: он сохраняет семантику прежнего LIKE '%text%', а tsquery ищет только
+ * по началу слов. Движок остаётся опцией shareit.search.engine=postgres, план его запроса проверяет QueryPlanIndexTest.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "postgres")
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        String query = SearchTokenizer.toPrefixTsQuery(text);
+        if (query.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return itemRepository.searchAvailableIdsByTsQuery(query, from, size);
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public void remove(Long itemId) {
+    }
+
+    @Override
+    public void removeAll(Collection<Long> itemIds) {
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Поиск по триграммам pg_trgm поверх GIN-индексов на lower(name) и lower(description).
+ * SUBSTRING сохраняет семантику прежнего LIKE '%text%', SIMILARITY ищет по word_similarity
+ * (терпит опечатки) и сортирует по степени схожести.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "trigram")
+public class TrigramItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+    private final TrigramSearchMode mode;
+
+    public TrigramItemSearchEngine(ItemRepository itemRepository,
+                                   @Value("${shareit.search.trigram.mode:substring}") TrigramSearchMode mode) {
+        this.itemRepository = itemRepository;
+        this.mode = mode;
+    }
+
+    @Override
+    public List<Long> search(String text, int from, int size) {
+        String normalized = text.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        return switch (mode) {
+            case SUBSTRING -> itemRepository.searchAvailableIdsBySubstring(toContainsPattern(normalized), from, size);
+            case SIMILARITY -> itemRepository.searchAvailableIdsBySimilarity(normalized, from, size);
+        };
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public void remove(Long itemId) {
+    }
+
+    @Override
+    public void removeAll(Collection<Long> itemIds) {
+    }
+
+    @Override
+    public boolean mayMatch(String text, String itemText) {
+        // схожесть по триграммам не сводится к вхождению подстрок, поэтому инвалидируем с запасом
+        return mode == TrigramSearchMode.SIMILARITY || ItemSearchEngine.super.mayMatch(text, itemText);
+    }
+
+    static String toContainsPattern(String text) {
+        String escaped = text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,178 @@
+package ru.practicum.shareit.item.suggest;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.transaction.TransactionCallbacks;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Индекс автодополнения названий доступных вещей. Строится из ItemRepository при старте
+ * и обновляется после коммита транзакций createItem/updateItem/deleteItem.
+ * Размер в памяти - оценка по числу узлов, символов и элементов top-K, без обхода кучи.
+ */
+@Slf4j
+@Component
+public class ItemNameSuggestIndex {
+    private static final int BOOTSTRAP_PAGE_SIZE = 1000;
+    // оценки для 64-битной JVM со сжатыми указателями: узел с HashMap и ArrayList, элемент top-K,
+    // запись Map<Long, IndexedName> вместе с учётом написания в узле
+    private static final int NODE_BYTES = 160;
+    private static final int TOP_ENTRY_BYTES = 32;
+    private static final int ITEM_BYTES = 136;
+
+    private final ItemRepository itemRepository;
+    private final int maxSuggestions;
+    private final ItemNameTrie trie;
+    private final Map<Long, IndexedName> namesByItemId = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long nameChars;
+
+    public ItemNameSuggestIndex(ItemRepository itemRepository,
+                                @Value("${shareit.items.suggest.max-size:10}") int maxSuggestions,
+                                MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        this.maxSuggestions = maxSuggestions;
+        this.trie = new ItemNameTrie(maxSuggestions);
+        gauge(meterRegistry, "shareit.items.suggest.items", null, ItemNameSuggestIndex::size);
+        gauge(meterRegistry, "shareit.items.suggest.nodes", null, ItemNameSuggestIndex::nodeCount);
+        gauge(meterRegistry, "shareit.items.suggest.memory", "bytes", ItemNameSuggestIndex::estimatedBytes);
+        gauge(meterRegistry, "shareit.items.suggest.memory.per.item", "bytes", index -> {
+            int size = index.size();
+            return size == 0 ? 0 : (double) index.estimatedBytes() / size;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        Page<Item> page;
+        int pageNumber = 0;
+        do {
+            page = itemRepository.findAll(PageRequest.of(pageNumber++, BOOTSTRAP_PAGE_SIZE, Sort.by("id")));
+            lock.writeLock().lock();
+            try {
+                page.forEach(item -> apply(item.getId(), item.getName(), Boolean.TRUE.equals(item.getAvailable())));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } while (page.hasNext());
+        log.info("Индекс автодополнения построен, вещей: {}, узлов: {}", size(), nodeCount());
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.suggest(key, Math.min(limit, maxSuggestions));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void track(Item item) {
+        Long itemId = item.getId();
+        String name = item.getName();
+        boolean available = Boolean.TRUE.equals(item.getAvailable());
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                apply(itemId, name, available);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void untrack(Collection<Long> itemIds) {
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                itemIds.forEach(this::delete);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return namesByItemId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return trie.nodeCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long estimatedBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) trie.nodeCount() * NODE_BYTES + trie.labelChars() * Character.BYTES
+                    + trie.topEntries() * TOP_ENTRY_BYTES + (long) namesByItemId.size() * ITEM_BYTES + nameChars * Character.BYTES;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalize(String name) {
+        return name == null ? "" : name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private void apply(Long itemId, String name, boolean available) {
+        delete(itemId);
+        String key = normalize(name);
+        if (!available || key.isEmpty()) {
+            return;
+        }
+        IndexedName indexed = new IndexedName(key, name.trim());
+        trie.add(indexed.key(), indexed.displayName());
+        namesByItemId.put(itemId, indexed);
+        nameChars += indexed.chars();
+    }
+
+    private void delete(Long itemId) {
+        IndexedName indexed = namesByItemId.remove(itemId);
+        if (indexed != null) {
+            trie.remove(indexed.key(), indexed.displayName());
+            nameChars -= indexed.chars();
+        }
+    }
+
+    private void gauge(MeterRegistry meterRegistry, String name, String baseUnit, ToDoubleFunction<ItemNameSuggestIndex> value) {
+        Gauge.builder(name, this, value).baseUnit(baseUnit).register(meterRegistry);
+    }
+
+    private record IndexedName(String key, String displayName) {
+        int chars() {
+            return key.length() + displayName.length();
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package ru.practicum.shareit.item.suggest;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сжатое префиксное дерево (radix trie) нормализованных названий вещей.
+ * Каждый узел хранит top-K названий своего поддерева (по числу вещей, затем по алфавиту),
+ * поэтому ответ на префикс - спуск на длину префикса без обхода поддерева.
+ * Написания одного нормализованного названия считаются по отдельности: показывается самое частое,
+ * а при удалении вещи вместе с ней уходит и её написание.
+ * Класс не потокобезопасен, синхронизация на стороне {@link ItemNameSuggestIndex}.
+ */
+public class ItemNameTrie {
+    private static final Comparator<Entry> RANKING = Comparator.comparingInt(Entry::count).reversed().thenComparing(Entry::key);
+
+    private final int topSize;
+    private final Node root = new Node("");
+    private int nodeCount = 1;
+    private long labelChars;
+    private long topEntries;
+
+    public ItemNameTrie(int topSize) {
+        this.topSize = topSize;
+    }
+
+    public void add(String key, String displayName) {
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        int pos = 0;
+        path.push(node);
+        while (pos < key.length()) {
+            Node child = node.children.get(key.charAt(pos));
+            if (child == null) {
+                child = newNode(key.substring(pos));
+                node.children.put(key.charAt(pos), child);
+            } else {
+                int common = commonPrefix(child.label, key, pos);
+                if (common < child.label.length()) {
+                    child = split(node, child, common);
+                }
+            }
+            node = child;
+            pos += node.label.length();
+            path.push(node);
+        }
+        node.count++;
+        node.key = key;
+        if (node.displayNames == null) {
+            node.displayNames = new HashMap<>(2);
+        }
+        node.displayNames.merge(displayName, 1, Integer::sum);
+        refreshTops(path);
+    }
+
+    public boolean remove(String key, String displayName) {
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        int pos = 0;
+        path.push(node);
+        while (pos < key.length()) {
+            Node child = node.children.get(key.charAt(pos));
+            if (child == null || !key.startsWith(child.label, pos)) {
+                return false;
+            }
+            node = child;
+            pos += node.label.length();
+            path.push(node);
+        }
+        if (node.count == 0) {
+            return false;
+        }
+        node.count--;
+        node.displayNames.computeIfPresent(displayName, (name, count) -> count == 1 ? null : count - 1);
+        if (node.count == 0) {
+            node.key = null;
+            node.displayNames = null;
+            compact(path);
+        }
+        refreshTops(path);
+        return true;
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        Node node = root;
+        int pos = 0;
+        while (pos < prefix.length()) {
+            Node child = node.children.get(prefix.charAt(pos));
+            if (child == null) {
+                return List.of();
+            }
+            int remaining = prefix.length() - pos;
+            if (remaining <= child.label.length()) {
+                if (!child.label.startsWith(prefix.substring(pos))) {
+                    return List.of();
+                }
+                node = child;
+                break;
+            }
+            if (!prefix.startsWith(child.label, pos)) {
+                return List.of();
+            }
+            node = child;
+            pos += child.label.length();
+        }
+        return node.top.stream().limit(limit).map(Entry::displayName).toList();
+    }
+
+    public int nodeCount() {
+        return nodeCount;
+    }
+
+    public long labelChars() {
+        return labelChars;
+    }
+
+    public long topEntries() {
+        return topEntries;
+    }
+
+    private Node split(Node parent, Node child, int common) {
+        Node middle = newNode(child.label.substring(0, common));
+        labelChars -= common;
+        child.label = child.label.substring(common);
+        middle.children.put(child.label.charAt(0), child);
+        parent.children.put(middle.label.charAt(0), middle);
+        middle.top = new ArrayList<>(child.top);
+        topEntries += middle.top.size();
+        return middle;
+    }
+
+    /**
+     * Убирает опустевший лист и склеивает узел с единственным потомком, чтобы дерево оставалось сжатым.
+     * Путь после этого содержит только живые узлы.
+     */
+    private void compact(Deque<Node> path) {
+        Node node = path.pop();
+        Node parent = path.peek();
+        if (node.children.isEmpty()) {
+            parent.children.remove(node.label.charAt(0));
+            release(node);
+            if (parent != root && parent.count == 0 && parent.children.size() == 1) {
+                path.pop();
+                Node grandParent = path.peek();
+                mergeWithSingleChild(grandParent, parent);
+            }
+        } else if (node.children.size() == 1) {
+            mergeWithSingleChild(parent, node);
+        } else {
+            path.push(node);
+        }
+    }
+
+    private void mergeWithSingleChild(Node parent, Node node) {
+        Node child = node.children.values().iterator().next();
+        parent.children.remove(node.label.charAt(0));
+        child.label = node.label + child.label;
+        labelChars += node.label.length();
+        parent.children.put(child.label.charAt(0), child);
+        release(node);
+    }
+
+    private void refreshTops(Deque<Node> path) {
+        for (Node node : path) {
+            List<Entry> candidates = new ArrayList<>();
+            if (node.count > 0) {
+                candidates.add(new Entry(node.key, displayName(node), node.count));
+            }
+            for (Node child : node.children.values()) {
+                candidates.addAll(child.top);
+            }
+            candidates.sort(RANKING);
+            List<Entry> top = candidates.size() > topSize ? new ArrayList<>(candidates.subList(0, topSize)) : candidates;
+            topEntries += top.size() - node.top.size();
+            node.top = top;
+        }
+    }
+
+    /**
+     * Самое частое написание; при равенстве - первое по алфавиту, чтобы подсказка не зависела от порядка вставки.
+     */
+    private static String displayName(Node node) {
+        String best = node.key;
+        int bestCount = 0;
+        for (Map.Entry<String, Integer> form : node.displayNames.entrySet()) {
+            if (form.getValue() > bestCount || form.getValue() == bestCount && form.getKey().compareTo(best) < 0) {
+                best = form.getKey();
+                bestCount = form.getValue();
+            }
+        }
+        return best;
+    }
+
+    private Node newNode(String label) {
+        nodeCount++;
+        labelChars += label.length();
+        return new Node(label);
+    }
+
+    private void release(Node node) {
+        nodeCount--;
+        labelChars -= node.label.length();
+        topEntries -= node.top.size();
+    }
+
+    private static int commonPrefix(String label, String key, int pos) {
+        int max = Math.min(label.length(), key.length() - pos);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(pos + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private record Entry(String key, String displayName, int count) {
+    }
+
+    private static class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private String label;
+        private String key;
+        private Map<String, Integer> displayNames;
+        private int count;
+        private List<Entry> top = new ArrayList<>();
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+}
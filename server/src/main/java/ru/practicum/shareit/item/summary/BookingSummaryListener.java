@@ -0,0 +1,34 @@
+package ru.practicum.shareit.item.summary;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+
+/**
+ * Отмечает вещь устаревшей в {@link ItemBookingSummaryService} при любом сохранении бронирования.
+ * Новые бронирования создаются в статусе WAITING и на сводку не влияют. Массовые JPQL-удаления
+ * сюда не попадают: в PostgreSQL строки сводки удаляются вместе с вещью каскадом.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookingSummaryListener {
+    private final ObjectProvider<ItemBookingSummaryService> summaryService;
+
+    @PostPersist
+    public void onPersist(Booking booking) {
+        if (booking.getStatus() == BookingStatus.APPROVED) {
+            summaryService.getObject().markStale(booking.getItem().getId());
+        }
+    }
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(Booking booking) {
+        summaryService.getObject().markStale(booking.getItem().getId());
+    }
+}
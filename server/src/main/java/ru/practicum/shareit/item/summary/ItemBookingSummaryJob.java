@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Сдвигает сводки вперёд по времени: бронирование началось или закончилось, и пара last/next сменилась
+ * без каких-либо изменений в БД. Пока строка не пересчитана, чтение само уходит в таблицу bookings,
+ * так что задержка задания влияет только на скорость, но не на корректность ответа.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemBookingSummaryJob {
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final ItemBookingSummaryService summaryService;
+
+    @Value("${shareit.items.booking-summary.batch-size:500}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${shareit.items.booking-summary.refresh-interval:PT1M}")
+    public void rollForward() {
+        int refreshed = 0;
+        int batch;
+        do {
+            List<Long> itemIds = summaryRepository.findExpiredItemIds(LocalDateTime.now(), PageRequest.of(0, batchSize));
+            itemIds.forEach(summaryService::refreshLocked);
+            batch = itemIds.size();
+            refreshed += batch;
+        } while (batch == batchSize);
+        if (refreshed > 0) {
+            log.info("Обновлено сводок бронирований: {}", refreshed);
+        }
+    }
+}
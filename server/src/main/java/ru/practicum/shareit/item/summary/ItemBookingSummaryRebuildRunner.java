@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Полный пересчёт item_booking_summary пачками по возрастанию Item ID, например после ручной правки bookings.
+ * Таблица не очищается заранее: пока идёт пересчёт, читающие запросы продолжают видеть прежние строки.
+ * Запуск: java -jar shareit-server.jar --shareit.items.booking-summary.rebuild=true
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.items.booking-summary.rebuild", havingValue = "true")
+public class ItemBookingSummaryRebuildRunner implements CommandLineRunner {
+    private final ItemRepository itemRepository;
+    private final ItemBookingSummaryService summaryService;
+
+    @Value("${shareit.items.booking-summary.batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public void run(String... args) {
+        log.info("Пересчёт сводок бронирований по вещам");
+        long afterItemId = 0;
+        int rebuilt = 0;
+        List<Long> itemIds;
+        do {
+            itemIds = itemRepository.findIdsAfter(afterItemId, PageRequest.of(0, batchSize));
+            itemIds.forEach(summaryService::refreshLocked);
+            if (!itemIds.isEmpty()) {
+                afterItemId = itemIds.getLast();
+                rebuilt += itemIds.size();
+                log.info("Пересчитано сводок: {}, последний Item ID: {}", rebuilt, afterItemId);
+            }
+        } while (itemIds.size() == batchSize);
+        log.info("Пересчёт сводок бронирований завершён, вещей: {}", rebuilt);
+    }
+}
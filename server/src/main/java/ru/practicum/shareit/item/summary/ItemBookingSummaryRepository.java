@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.summary;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Query("SELECT s FROM ItemBookingSummary s WHERE s.itemId IN (SELECT i.id FROM Item i WHERE i.owner.id = :ownerId)")
+    List<ItemBookingSummary> findAllByOwnerId(@Param("ownerId") Long ownerId);
+
+    @Query("SELECT s.itemId FROM ItemBookingSummary s WHERE s.validUntil <= :now ORDER BY s.validUntil")
+    List<Long> findExpiredItemIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ItemBookingSummary s WHERE s.itemId = :itemId")
+    void deleteByItemId(@Param("itemId") Long itemId);
+
+    @Modifying
+    @Query("DELETE FROM ItemBookingSummary s WHERE s.itemId IN :itemIds")
+    void deleteAllByItemIdIn(@Param("itemIds") List<Long> itemIds);
+}
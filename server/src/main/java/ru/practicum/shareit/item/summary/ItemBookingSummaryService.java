@@ -0,0 +1,142 @@
+package ru.practicum.shareit.item.summary;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.lock.ItemLockManager;
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Поддерживает таблицу item_booking_summary в согласии с бронированиями.
+ * Изменённые в транзакции вещи копятся в {@link #markStale} и пересчитываются в beforeCommit,
+ * то есть в той же транзакции, что и сами бронирования. До коммита читающий код видит вещь
+ * устаревшей ({@link #isFresh}) и считает даты по таблице bookings.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemBookingSummaryService {
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
+    private final ItemLockManager itemLocks;
+    private final TransactionTemplate transactionTemplate;
+
+    public void markStale(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            log.warn("Изменение бронирований Item ID: {} вне транзакции, сводку обновит ItemBookingSummaryJob или rebuild", itemId);
+            return;
+        }
+        staleInTransaction(true).add(itemId);
+    }
+
+    public boolean isFresh(Long itemId, LocalDateTime validUntil, LocalDateTime now) {
+        Set<Long> stale = staleInTransaction(false);
+        if (stale != null && stale.contains(itemId)) {
+            return false;
+        }
+        return validUntil == null || validUntil.isAfter(now);
+    }
+
+    public boolean isFresh(Collection<ItemBookingSummary> summaries, Collection<Long> itemIds, LocalDateTime now) {
+        Set<Long> stale = staleInTransaction(false);
+        if (stale != null && itemIds.stream().anyMatch(stale::contains)) {
+            return false;
+        }
+        return summaries.stream().allMatch(summary -> summary.getValidUntil() == null || summary.getValidUntil().isAfter(now));
+    }
+
+    /**
+     * Пересчёт вне записи бронирований (задание, rebuild): своя короткая транзакция под блокировкой вещи.
+     * Без блокировки транзакция, прочитавшая бронирования до коммита approveBooking, перезаписала бы
+     * свежую строку устаревшей, и та считалась бы актуальной до своего validUntil.
+     */
+    public void refreshLocked(Long itemId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            itemLocks.lockUntilTransactionEnd(itemId);
+            refresh(itemId, LocalDateTime.now());
+        });
+    }
+
+    /**
+     * Пересчитывает строку вещи на момент now; вызывать внутри пишущей транзакции.
+     */
+    public void refresh(Long itemId, LocalDateTime now) {
+        Optional<Booking> last = bookingRepository.findLastBooking(itemId, now);
+        Optional<Booking> next = bookingRepository.findNextBooking(itemId, now);
+        Optional<LocalDateTime> earliestEnd = bookingRepository.findEarliestApprovedEndFrom(itemId, now);
+        if (last.isEmpty() && next.isEmpty() && earliestEnd.isEmpty()) {
+            summaryRepository.deleteByItemId(itemId);
+            return;
+        }
+        ItemBookingSummary summary = ItemBookingSummary.builder().itemId(itemId).validUntil(earliest(next.map(Booking::getStartDate), earliestEnd)).build();
+        last.ifPresent(booking -> {
+            summary.setLastBookingId(booking.getId());
+            summary.setLastStart(booking.getStartDate());
+            summary.setLastEnd(booking.getEndDate());
+        });
+        next.ifPresent(booking -> {
+            summary.setNextBookingId(booking.getId());
+            summary.setNextStart(booking.getStartDate());
+            summary.setNextEnd(booking.getEndDate());
+        });
+        summaryRepository.save(summary);
+    }
+
+    private void refreshStale(Set<Long> stale) {
+        entityManager.flush();
+        // flush может вызвать новые @PostUpdate бронирований, поэтому разбираем множество до опустошения
+        while (!stale.isEmpty()) {
+            List<Long> itemIds = new ArrayList<>(stale);
+            stale.clear();
+            LocalDateTime now = LocalDateTime.now();
+            itemIds.forEach(itemId -> refresh(itemId, now));
+            entityManager.flush();
+        }
+    }
+
+    private Set<Long> staleInTransaction(boolean create) {
+        @SuppressWarnings("unchecked")
+        Set<Long> stale = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (stale == null && create) {
+            Set<Long> transactionStale = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, transactionStale);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    refreshStale(transactionStale);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ItemBookingSummaryService.this);
+                }
+            });
+            stale = transactionStale;
+        }
+        return stale;
+    }
+
+    private static LocalDateTime earliest(Optional<LocalDateTime> first, Optional<LocalDateTime> second) {
+        if (first.isEmpty()) {
+            return second.orElse(null);
+        }
+        if (second.isEmpty()) {
+            return first.get();
+        }
+        return first.get().isBefore(second.get()) ? first.get() : second.get();
+    }
+}
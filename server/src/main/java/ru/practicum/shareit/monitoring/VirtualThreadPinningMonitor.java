@@ -0,0 +1,84 @@
+package ru.practicum.shareit.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * В режиме виртуальных потоков (spring.threads.virtual.enabled=true) слушает JFR-событие jdk.VirtualThreadPinned:
+ * виртуальный поток заблокировался, удерживая монитор synchronized или находясь в native-кадре, и занял несущий поток.
+ * Каждое событие дольше threshold пишется в лог со стеком и считается в shareit.threads.virtual.pinned
+ * с тегом source: jdbc, если в стеке есть кадры драйвера или пула соединений, иначе monitor.
+ * Монитор никто не внедряет, поэтому он исключён из spring.main.lazy-initialization: иначе он бы не запустился.
+ */
+@Slf4j
+@Component
+@Lazy(false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final List<String> JDBC_PACKAGES = List.of("java.sql.", "javax.sql.", "org.postgresql.", "com.zaxxer.hikari.", "org.h2.");
+    private static final int LOGGED_FRAMES = 20;
+
+    private final Duration threshold;
+    private final MeterRegistry meterRegistry;
+    private RecordingStream recording;
+
+    public VirtualThreadPinningMonitor(@Value("${shareit.threads.pinning.threshold:PT0.02S}") Duration threshold,
+                                       MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::report);
+        recording.startAsync();
+        log.info("Отслеживание закрепления виртуальных потоков включено, порог {} мс", threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        recording.close();
+    }
+
+    private void report(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        String source = source(frames);
+        Counter.builder("shareit.threads.virtual.pinned").tag("source", source).register(meterRegistry).increment();
+        log.warn("Виртуальный поток закреплён за несущим на {} мс ({}):\n{}", event.getDuration().toMillis(), source, format(frames));
+    }
+
+    private static String source(List<RecordedFrame> frames) {
+        boolean jdbc = frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(frame -> frame.getMethod().getType().getName())
+                .anyMatch(type -> JDBC_PACKAGES.stream().anyMatch(type::startsWith));
+        return jdbc ? "jdbc" : "monitor";
+    }
+
+    private static String format(List<RecordedFrame> frames) {
+        return frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
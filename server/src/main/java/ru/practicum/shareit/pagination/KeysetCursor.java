@@ -0,0 +1,43 @@
+package ru.practicum.shareit.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+/**
+ * Непрозрачный курсор keyset-пагинации по паре (момент времени DESC, id DESC): Base64 от "момент_id".
+ * Момент приводится к микросекундам, с которыми его хранит БД: сущность, сохранённая в этом процессе,
+ * несёт наносекунды, и курсор по ним не совпал бы со строкой, на которой остановилась страница.
+ */
+public record KeysetCursor(LocalDateTime position, Long id) {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String SEPARATOR = "_";
+
+    public static KeysetCursor of(LocalDateTime position, Long id) {
+        return new KeysetCursor(toStoredPrecision(position), id);
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return of(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Некорректный cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        String raw = position + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * PostgreSQL и H2 округляют TIMESTAMP до микросекунд, а не отбрасывают остаток.
+     */
+    private static LocalDateTime toStoredPrecision(LocalDateTime dateTime) {
+        return dateTime.plusNanos(500).truncatedTo(ChronoUnit.MICROS);
+    }
+}
@@ -4,7 +4,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.request.dto.CreateRequestDto;
+import ru.practicum.shareit.request.dto.RequestCursor;
+import ru.practicum.shareit.request.dto.RequestCursorPage;
 import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 import ru.practicum.shareit.request.dto.ShortRequestResponse;
 
 import java.util.List;
@@ -13,6 +16,7 @@ import java.util.List;
 @RequiredArgsConstructor
 @RequestMapping(path = "/requests")
 public class ItemRequestController {
+    private static final int DEFAULT_PAGE_SIZE = 10;
     private final RequestService service;
 
     @PostMapping
@@ -27,8 +31,16 @@ public class ItemRequestController {
     }
 
     @GetMapping("/all")
-    public ResponseEntity<List<ShortRequestResponse>> getAllRequests(@RequestHeader(value = "X-Sharer-User-Id") long userId) {
-        return ResponseEntity.ok(service.getAllRequests(userId));
+    public ResponseEntity<List<ShortRequestResponse>> getAllRequests(@RequestHeader(value = "X-Sharer-User-Id") long userId, @RequestParam(name = "size", required = false) Integer size, @RequestParam(name = "cursor", required = false) String cursor) {
+        if (size == null && cursor == null) {
+            return ResponseEntity.ok(service.getAllRequests(userId));
+        }
+        RequestCursorPage page = service.getAllRequestsAfterCursor(userId, cursor, size != null ? size : DEFAULT_PAGE_SIZE);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(RequestCursor.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getContent());
     }
 
     @GetMapping("/{reqId}")
@@ -36,4 +48,9 @@ public class ItemRequestController {
         return ResponseEntity.ok(service.getRequestById(reqId));
     }
 
+    @GetMapping("/{reqId}/matches")
+    public ResponseEntity<List<RequestMatchDto>> getRequestMatches(@PathVariable long reqId) {
+        return ResponseEntity.ok(service.getRequestMatches(reqId));
+    }
+
 }
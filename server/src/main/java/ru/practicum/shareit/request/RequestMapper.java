@@ -3,6 +3,9 @@ package ru.practicum.shareit.request;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.CreateRequestDto;
 import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.dto.RequestItemView;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.request.dto.RequestMatchView;
 import ru.practicum.shareit.request.dto.ShortItemDtoForRequest;
 import ru.practicum.shareit.request.dto.ShortRequestResponse;
 import ru.practicum.shareit.user.model.User;
@@ -31,4 +34,12 @@ public class RequestMapper {
     public static ShortItemDtoForRequest itemToShortItemDtoForRequest(Item item, long ownerId) {
         return ShortItemDtoForRequest.builder().id(item.getId()).name(item.getName()).ownerId(ownerId).build();
     }
+
+    public static ShortItemDtoForRequest viewToShortItemDtoForRequest(RequestItemView view) {
+        return ShortItemDtoForRequest.builder().id(view.getItemId()).name(view.getName()).ownerId(view.getOwnerId()).build();
+    }
+
+    public static RequestMatchDto viewToMatchDto(RequestMatchView view) {
+        return RequestMatchDto.builder().itemId(view.getItemId()).name(view.getName()).ownerId(view.getOwnerId()).score(view.getScore()).build();
+    }
 }
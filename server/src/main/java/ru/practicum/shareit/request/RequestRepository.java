@@ -1,13 +1,46 @@
 package ru.practicum.shareit.request;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface RequestRepository extends JpaRepository<ItemRequest, Long> {
 
     List<ItemRequest> findAllByRequester_Id(Long id, Sort sort);
 
-    List<ItemRequest> findAllByRequester_IdNot(Long id, Sort sort);
+    @Query("""
+            SELECT r FROM ItemRequest r JOIN FETCH r.requester WHERE r.requester.id <> :userId
+            ORDER BY r.created DESC, r.id DESC""")
+    List<ItemRequest> findAllOtherUsersRequests(@Param("userId") Long userId);
+
+    @Query("""
+            SELECT r FROM ItemRequest r JOIN FETCH r.requester WHERE r.requester.id <> :userId
+            ORDER BY r.created DESC, r.id DESC""")
+    Slice<ItemRequest> findOtherUsersRequests(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("""
+            SELECT r FROM ItemRequest r JOIN FETCH r.requester WHERE r.requester.id <> :userId
+            AND (r.created < :cursorCreated OR (r.created = :cursorCreated AND r.id < :cursorId))
+            ORDER BY r.created DESC, r.id DESC""")
+    Slice<ItemRequest> findOtherUsersRequestsAfter(@Param("userId") Long userId, @Param("cursorCreated") LocalDateTime cursorCreated, @Param("cursorId") Long cursorId, Pageable pageable);
+
+    /**
+     * Начало общей ленты без исключения автора - одна выборка на всех пользователей для {@code RequestFeedCache}.
+     */
+    @Query("SELECT r FROM ItemRequest r JOIN FETCH r.requester ORDER BY r.created DESC, r.id DESC")
+    List<ItemRequest> findFeedHead(Pageable pageable);
+
+    @Query("SELECT r.id FROM ItemRequest r WHERE r.requester.id = :requesterId ORDER BY r.id")
+    List<Long> findIdsByRequesterId(@Param("requesterId") Long requesterId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ItemRequest r WHERE r.id IN :ids")
+    void deleteAllByIdIn(@Param("ids") List<Long> ids);
 }
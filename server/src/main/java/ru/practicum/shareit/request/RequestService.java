@@ -1,7 +1,9 @@
 package ru.practicum.shareit.request;
 
 import ru.practicum.shareit.request.dto.CreateRequestDto;
+import ru.practicum.shareit.request.dto.RequestCursorPage;
 import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 import ru.practicum.shareit.request.dto.ShortRequestResponse;
 
 import java.util.List;
@@ -13,6 +15,10 @@ public interface RequestService {
 
     List<ShortRequestResponse> getAllRequests(long userId);
 
+    RequestCursorPage getAllRequestsAfterCursor(long userId, String cursor, int size);
+
     RequestDto getRequestById(long reqId);
 
+    List<RequestMatchDto> getRequestMatches(long reqId);
+
 }
@@ -2,17 +2,25 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.CreateRequestDto;
+import ru.practicum.shareit.request.dto.RequestCursor;
+import ru.practicum.shareit.request.dto.RequestCursorPage;
 import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.request.dto.RequestItemView;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
 import ru.practicum.shareit.request.dto.ShortItemDtoForRequest;
 import ru.practicum.shareit.request.dto.ShortRequestResponse;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.request.feed.RequestFeedCache;
+import ru.practicum.shareit.request.match.RequestMatchRepository;
+import ru.practicum.shareit.request.match.RequestMatcher;
+import ru.practicum.shareit.user.UserReferenceResolver;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.Collections;
@@ -27,15 +35,20 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class RequestServiceImpl implements RequestService {
     private final RequestRepository repository;
-    private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final UserReferenceResolver userReferences;
+    private final RequestFeedCache feedCache;
+    private final RequestMatcher matcher;
+    private final RequestMatchRepository matchRepository;
 
     @Transactional
     @Override
     public ShortRequestResponse createRequest(long userId, CreateRequestDto description) {
-        User author = userRepository.findById(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден при создании запроса"));
+        User author = userReferences.findReference(userId).orElseThrow(() -> new NotFoundException("Пользователь не найден при создании запроса"));
         ItemRequest itemRequest = RequestMapper.fromCreateRequestToEntity(description, author);
         ItemRequest saved = repository.save(itemRequest);
+        feedCache.invalidate();
+        matcher.matchAfterCommit(saved);
         return RequestMapper.fromEntityToShortResponse(saved, userId);
     }
 
@@ -48,27 +61,49 @@ public class RequestServiceImpl implements RequestService {
             return Collections.emptyList();
         }
         List<Long> requestIds = userRequests.stream().map(ItemRequest::getId).collect(Collectors.toList());
-        Map<Long, List<Item>> itemsByRequestId = itemRepository.findAllByRequestIdIn(requestIds).stream().collect(Collectors.groupingBy(item -> item.getRequest().getId(), LinkedHashMap::new, Collectors.toList()));
-        return userRequests.stream().map(request -> {
-            List<Item> items = itemsByRequestId.getOrDefault(request.getId(), Collections.emptyList());
-            List<ShortItemDtoForRequest> itemDtos = items.stream().map(item -> RequestMapper.itemToShortItemDtoForRequest(item, item.getOwner().getId())).collect(Collectors.toList());
-
-            return RequestMapper.entityToRequestDto(request, itemDtos);
-        }).collect(Collectors.toList());
+        Map<Long, List<ShortItemDtoForRequest>> itemsByRequestId = itemRepository.findRequestItemsByRequestIdIn(requestIds).stream().collect(Collectors.groupingBy(RequestItemView::getRequestId, LinkedHashMap::new, Collectors.mapping(RequestMapper::viewToShortItemDtoForRequest, Collectors.toList())));
+        return userRequests.stream().map(request -> RequestMapper.entityToRequestDto(request, itemsByRequestId.getOrDefault(request.getId(), Collections.emptyList()))).collect(Collectors.toList());
     }
 
     @Override
     public List<ShortRequestResponse> getAllRequests(long userId) {
-        Sort sort = Sort.by(Sort.Direction.DESC, "created");
-        return repository.findAllByRequester_IdNot(userId, sort).stream().map(request -> RequestMapper.fromEntityToShortResponse(request, request.getRequester().getId())).collect(Collectors.toList());
+        return repository.findAllOtherUsersRequests(userId).stream().map(RequestServiceImpl::toShortResponse).collect(Collectors.toList());
+    }
+
+    @Override
+    public RequestCursorPage getAllRequestsAfterCursor(long userId, String cursor, int size) {
+        log.info("Получение ленты запросов для пользователя ID: {} после курсора: {}", userId, cursor);
+        if (cursor == null || cursor.isBlank()) {
+            return feedCache.firstPage(userId, size, headSize -> repository.findFeedHead(PageRequest.of(0, headSize)).stream().map(RequestServiceImpl::toShortResponse).toList())
+                    .orElseGet(() -> toCursorPage(repository.findOtherUsersRequests(userId, PageRequest.of(0, size))));
+        }
+        RequestCursor after = RequestCursor.decode(cursor);
+        return toCursorPage(repository.findOtherUsersRequestsAfter(userId, after.created(), after.id(), PageRequest.of(0, size)));
     }
 
     @Override
     public RequestDto getRequestById(long reqId) {
         ItemRequest result = repository.findById(reqId).orElseThrow(() -> new NotFoundException("Запрос не найден."));
-        List<Item> itemsByRequestId = itemRepository.findAllByRequestId(result.getId());
-        List<ShortItemDtoForRequest> itemDtos = itemsByRequestId.stream().map(item -> RequestMapper.itemToShortItemDtoForRequest(item, item.getOwner().getId())).collect(Collectors.toList());
+        List<ShortItemDtoForRequest> itemDtos = itemRepository.findRequestItemsByRequestId(result.getId()).stream().map(RequestMapper::viewToShortItemDtoForRequest).collect(Collectors.toList());
         return RequestMapper.entityToRequestDto(result, itemDtos);
 
     }
+
+    @Override
+    public List<RequestMatchDto> getRequestMatches(long reqId) {
+        if (!repository.existsById(reqId)) {
+            throw new NotFoundException("Запрос не найден.");
+        }
+        return matchRepository.findViewsByRequestId(reqId).stream().map(RequestMapper::viewToMatchDto).collect(Collectors.toList());
+    }
+
+    private static ShortRequestResponse toShortResponse(ItemRequest request) {
+        return RequestMapper.fromEntityToShortResponse(request, request.getRequester().getId());
+    }
+
+    private static RequestCursorPage toCursorPage(Slice<ItemRequest> slice) {
+        List<ShortRequestResponse> content = slice.getContent().stream().map(RequestServiceImpl::toShortResponse).collect(Collectors.toList());
+        String nextCursor = slice.hasNext() && !content.isEmpty() ? RequestCursor.of(content.get(content.size() - 1)).encode() : null;
+        return new RequestCursorPage(content, nextCursor);
+    }
 }
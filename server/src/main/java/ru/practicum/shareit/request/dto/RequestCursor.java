@@ -0,0 +1,28 @@
+package ru.practicum.shareit.request.dto;
+
+import ru.practicum.shareit.pagination.KeysetCursor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Позиция последнего запроса ленты /requests/all в порядке (created DESC, id DESC); кодирование - {@link KeysetCursor}.
+ */
+public record RequestCursor(LocalDateTime created, Long id) {
+    public static final String NEXT_CURSOR_HEADER = KeysetCursor.NEXT_CURSOR_HEADER;
+
+    public static RequestCursor of(ShortRequestResponse request) {
+        return from(KeysetCursor.of(request.getCreated(), request.getId()));
+    }
+
+    public static RequestCursor decode(String cursor) {
+        return from(KeysetCursor.decode(cursor));
+    }
+
+    public String encode() {
+        return new KeysetCursor(created, id).encode();
+    }
+
+    private static RequestCursor from(KeysetCursor cursor) {
+        return new RequestCursor(cursor.position(), cursor.id());
+    }
+}
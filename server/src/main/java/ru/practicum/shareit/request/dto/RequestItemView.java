@@ -0,0 +1,14 @@
+package ru.practicum.shareit.request.dto;
+
+/**
+ * Вещь, созданная в ответ на запрос: только поля {@link ShortItemDtoForRequest} и id запроса, без загрузки Item и владельца.
+ */
+public interface RequestItemView {
+    Long getItemId();
+
+    String getName();
+
+    Long getOwnerId();
+
+    Long getRequestId();
+}
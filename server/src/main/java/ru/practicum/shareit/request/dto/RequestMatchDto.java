@@ -0,0 +1,15 @@
+package ru.practicum.shareit.request.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RequestMatchDto {
+    private Long itemId;
+    private String name;
+    private Long ownerId;
+    private Double score;
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.request.dto;
+
+public interface RequestMatchView {
+    Long getItemId();
+
+    String getName();
+
+    Long getOwnerId();
+
+    Double getScore();
+}
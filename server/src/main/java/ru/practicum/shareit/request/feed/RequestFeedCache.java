@@ -0,0 +1,103 @@
+package ru.practicum.shareit.request.feed;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.request.dto.RequestCursor;
+import ru.practicum.shareit.request.dto.RequestCursorPage;
+import ru.practicum.shareit.request.dto.ShortRequestResponse;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntFunction;
+
+/**
+ * Общий для всех пользователей кэш первой страницы /requests/all. Хранится начало ленты - head-size
+ * самых новых запросов всех авторов, - а первая страница конкретного пользователя вырезается из него
+ * исключением его собственных запросов. Если после исключения запросов не хватает на страницу
+ * и лента длиннее начала, страница читается из БД. Новые запросы сбрасывают кэш сразу и после коммита;
+ * одновременные промахи ждут одну загрузку.
+ */
+@Component
+public class RequestFeedCache {
+    private static final String HEAD = "head";
+
+    private final int headSize;
+    private final AsyncCache<String, List<ShortRequestResponse>> cache;
+
+    public RequestFeedCache(@Value("${shareit.requests.feed.cache.head-size:200}") int headSize,
+                            @Value("${shareit.requests.feed.cache.ttl:30s}") Duration ttl,
+                            MeterRegistry meterRegistry) {
+        this.headSize = headSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "requestFeed");
+    }
+
+    /**
+     * Первая страница ленты userId или пусто, если её нельзя собрать из начала ленты.
+     * headLoader получает размер начала и возвращает его в порядке (created DESC, id DESC).
+     */
+    public Optional<RequestCursorPage> firstPage(long userId, int size, IntFunction<List<ShortRequestResponse>> headLoader) {
+        if (size >= headSize || !isCacheable()) {
+            return Optional.empty();
+        }
+        List<ShortRequestResponse> head = loadHead(headLoader).join();
+        List<ShortRequestResponse> visible = head.stream().filter(request -> request.getRequesterId() != userId).limit(size + 1L).toList();
+        boolean wholeFeed = head.size() < headSize;
+        if (visible.size() <= size && !wholeFeed) {
+            return Optional.empty();
+        }
+        boolean hasNext = visible.size() > size;
+        List<ShortRequestResponse> content = hasNext ? visible.subList(0, size) : visible;
+        String nextCursor = hasNext ? RequestCursor.of(content.get(content.size() - 1)).encode() : null;
+        return Optional.of(new RequestCursorPage(content, nextCursor));
+    }
+
+    public void invalidate() {
+        cache.synchronous().invalidate(HEAD);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.synchronous().invalidate(HEAD);
+                }
+            });
+        }
+    }
+
+    /**
+     * Начало ленты читает тот, кто первым промахнулся, в своей транзакции; остальные ждут его future.
+     * Синхронный Cache.get читал бы БД под монитором корзины ConcurrentHashMap и закреплял виртуальный поток.
+     */
+    private CompletableFuture<List<ShortRequestResponse>> loadHead(IntFunction<List<ShortRequestResponse>> headLoader) {
+        CompletableFuture<List<ShortRequestResponse>> load = new CompletableFuture<>();
+        CompletableFuture<List<ShortRequestResponse>> head = cache.get(HEAD, (key, executor) -> load);
+        if (head == load) {
+            try {
+                load.complete(List.copyOf(headLoader.apply(headSize)));
+            } catch (RuntimeException e) {
+                load.completeExceptionally(e);
+                throw e;
+            }
+        }
+        return head;
+    }
+
+    /**
+     * Пишущая транзакция может видеть свои незакоммиченные запросы, поэтому кэш в ней не читается и не наполняется.
+     */
+    private static boolean isCacheable() {
+        return !TransactionSynchronizationManager.isActualTransactionActive() || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
@@ -0,0 +1,191 @@
+package ru.practicum.shareit.request.match;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.SearchTokenizer;
+import ru.practicum.shareit.transaction.TransactionCallbacks;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Инвертированный индекс доступных вещей для подбора по описанию запроса. В отличие от поиска /items/search
+ * термы запроса объединяются по ИЛИ: описание вида "нужна дрель для ремонта" целиком в вещи не встречается.
+ * Термы усечены до {@value #STEM_LENGTH} символов - грубая замена стемминга для падежных окончаний;
+ * служебные и короткие слова отбрасываются. Вес терма - idf, совпадение в названии весит вдвое больше.
+ * Как и индекс автодополнения, строится при старте и обновляется после коммита.
+ */
+@Slf4j
+@Component
+public class ItemMatchIndex {
+    static final int STEM_LENGTH = 4;
+    private static final int MIN_TERM_LENGTH = 3;
+    private static final int BOOTSTRAP_PAGE_SIZE = 1000;
+    private static final double NAME_WEIGHT = 2.0;
+    private static final double DESCRIPTION_WEIGHT = 1.0;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "нужна", "нужен", "нужно", "нужны", "ищу", "ищем", "для", "кто", "есть", "может", "можно",
+            "пожалуйста", "дней", "день", "неделю", "или", "что", "как", "где", "мне", "нам", "очень");
+
+    private final ItemRepository itemRepository;
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+    private final Map<String, Map<Long, Double>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ItemMatchIndex(ItemRepository itemRepository, MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        Gauge.builder("shareit.requests.matching.index.items", this, ItemMatchIndex::size).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        Page<Item> page;
+        int pageNumber = 0;
+        do {
+            page = itemRepository.findAll(PageRequest.of(pageNumber++, BOOTSTRAP_PAGE_SIZE, Sort.by("id")));
+            lock.writeLock().lock();
+            try {
+                page.forEach(item -> apply(item.getId(), IndexedItem.of(item)));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } while (page.hasNext());
+        log.info("Индекс подбора вещей по запросам построен, вещей: {}", size());
+    }
+
+    /**
+     * До limit доступных вещей, чьи термы пересекаются с описанием, по убыванию веса; вещи excludedOwnerId пропускаются.
+     */
+    public List<ItemMatch> match(String description, long excludedOwnerId, int limit) {
+        Set<String> queryTerms = terms(description);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = new HashMap<>();
+            int documentCount = documents.size();
+            for (String term : queryTerms) {
+                Map<Long, Double> posting = postings.get(term);
+                if (posting == null) {
+                    continue;
+                }
+                double idf = Math.log(1.0 + (double) documentCount / posting.size());
+                posting.forEach((itemId, fieldWeight) -> {
+                    if (documents.get(itemId).ownerId() != excludedOwnerId) {
+                        scores.merge(itemId, fieldWeight * idf, Double::sum);
+                    }
+                });
+            }
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue(Comparator.reverseOrder()).thenComparing(Map.Entry.<Long, Double>comparingByKey()))
+                    .limit(limit)
+                    .map(entry -> new ItemMatch(entry.getKey(), entry.getValue()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void track(Item item) {
+        Long itemId = item.getId();
+        IndexedItem document = IndexedItem.of(item);
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                apply(itemId, document);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void untrack(Collection<Long> itemIds) {
+        TransactionCallbacks.afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                itemIds.forEach(this::delete);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static Set<String> terms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String token : SearchTokenizer.tokenize(text)) {
+            if (token.length() >= MIN_TERM_LENGTH && !STOP_WORDS.contains(token)) {
+                terms.add(token.length() > STEM_LENGTH ? token.substring(0, STEM_LENGTH) : token);
+            }
+        }
+        return terms;
+    }
+
+    private void apply(Long itemId, IndexedItem document) {
+        delete(itemId);
+        if (document == null) {
+            return;
+        }
+        documents.put(itemId, document);
+        document.weights().forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(itemId, weight));
+    }
+
+    private void delete(Long itemId) {
+        IndexedItem previous = documents.remove(itemId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.weights().keySet()) {
+            Map<Long, Double> posting = postings.get(term);
+            posting.remove(itemId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+    }
+
+
+    public record ItemMatch(Long itemId, double score) {
+    }
+
+    private record IndexedItem(long ownerId, Map<String, Double> weights) {
+
+        /**
+         * null для недоступной вещи: такие в индексе не хранятся.
+         */
+        static IndexedItem of(Item item) {
+            if (!Boolean.TRUE.equals(item.getAvailable())) {
+                return null;
+            }
+            Map<String, Double> weights = new HashMap<>();
+            terms(item.getDescription()).forEach(term -> weights.put(term, DESCRIPTION_WEIGHT));
+            terms(item.getName()).forEach(term -> weights.put(term, NAME_WEIGHT));
+            return new IndexedItem(item.getOwner().getId(), weights);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.request.match;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.request.dto.RequestMatchView;
+
+import java.util.List;
+
+public interface RequestMatchRepository extends JpaRepository<RequestMatch, Long> {
+
+    @Modifying
+    @Query("DELETE FROM RequestMatch m WHERE m.requestId = :requestId")
+    void deleteAllByRequestId(@Param("requestId") Long requestId);
+
+    /**
+     * Вещи, ставшие недоступными после подбора, в выдачу не попадают.
+     */
+    @Query("""
+            SELECT m.itemId AS itemId, i.name AS name, i.owner.id AS ownerId, m.score AS score
+            FROM RequestMatch m JOIN Item i ON i.id = m.itemId
+            WHERE m.requestId = :requestId AND i.available = true
+            ORDER BY m.score DESC, m.itemId""")
+    List<RequestMatchView> findViewsByRequestId(@Param("requestId") Long requestId);
+}
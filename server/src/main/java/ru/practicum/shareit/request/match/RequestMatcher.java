@@ -0,0 +1,91 @@
+package ru.practicum.shareit.request.match;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.transaction.TransactionCallbacks;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подбирает вещи под новый запрос в фоне: после коммита createRequest задача уходит в пул из threads потоков
+ * с очередью queue-capacity. При переполненной очереди подбор для запроса пропускается с предупреждением -
+ * создание запроса от этого не страдает, а кандидатов можно пересчитать повторным {@link #submit}.
+ * Результат заменяет прежние строки request_matches запроса целиком.
+ */
+@Slf4j
+@Component
+public class RequestMatcher {
+    private final ItemMatchIndex matchIndex;
+    private final RequestMatchRepository matchRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxCandidates;
+    private final ThreadPoolExecutor executor;
+    private final Counter rejected;
+
+    public RequestMatcher(ItemMatchIndex matchIndex,
+                          RequestMatchRepository matchRepository,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${shareit.requests.matching.threads:2}") int threads,
+                          @Value("${shareit.requests.matching.queue-capacity:1000}") int queueCapacity,
+                          @Value("${shareit.requests.matching.max-candidates:20}") int maxCandidates,
+                          MeterRegistry meterRegistry) {
+        this.matchIndex = matchIndex;
+        this.matchRepository = matchRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.maxCandidates = maxCandidates;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("request-matcher-", 0).daemon().factory(), new ThreadPoolExecutor.AbortPolicy());
+        this.rejected = Counter.builder("shareit.requests.matching.rejected").register(meterRegistry);
+        Gauge.builder("shareit.requests.matching.queue.size", executor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    public void matchAfterCommit(ItemRequest request) {
+        Long requestId = request.getId();
+        String description = request.getDescription();
+        long requesterId = request.getRequester().getId();
+        TransactionCallbacks.afterCommit(() -> submit(requestId, description, requesterId));
+    }
+
+    public CompletableFuture<Void> submit(Long requestId, String description, long requesterId) {
+        try {
+            return CompletableFuture.runAsync(() -> match(requestId, description, requesterId), executor)
+                    .whenComplete((result, error) -> {
+                        if (error != null) {
+                            log.error("Ошибка подбора вещей для запроса ID: {}", requestId, error);
+                        }
+                    });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Очередь подбора вещей переполнена, запрос ID: {} пропущен", requestId);
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void match(Long requestId, String description, long requesterId) {
+        List<ItemMatchIndex.ItemMatch> candidates = matchIndex.match(description, requesterId, maxCandidates);
+        transactionTemplate.executeWithoutResult(status -> {
+            matchRepository.deleteAllByRequestId(requestId);
+            matchRepository.saveAll(candidates.stream()
+                    .map(candidate -> RequestMatch.builder().requestId(requestId).itemId(candidate.itemId()).score(candidate.score()).build())
+                    .toList());
+        });
+        log.debug("Для запроса ID: {} подобрано вещей: {}", requestId, candidates.size());
+    }
+}
@@ -0,0 +1,90 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.transaction.TransactionCallbacks;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.BitSet;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ссылки на пользователей для пишущих операций без загрузки сущности: getReferenceById вместо findById.
+ * Подтверждённые id хранятся в битовой карте; промах проверяется запросом existsById и попадает в карту
+ * только после коммита, чтобы откаченная вставка не оставила в ней несуществующий id. Если пользователя
+ * удалил другой экземпляр приложения, здесь id остаётся в карте, а строка-надгробие ещё удовлетворяет
+ * внешнему ключу, поэтому вставка пройдёт; такие строки находит и удаляет UserPurgeWorker перед фазой USER.
+ * Отсутствующий id (нет заголовка X-Sharer-User-Id) - ошибка запроса, а не ненайденный пользователь.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserReferenceResolver {
+    private final UserRepository userRepository;
+    private final BitSet knownIds = new BitSet();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public Optional<User> findReference(Long userId) {
+        if (userId == null) {
+            throw new ValidationException("отсутствует Id пользователя");
+        }
+        if (!isKnown(userId)) {
+            if (!userRepository.existsById(userId)) {
+                return Optional.empty();
+            }
+            TransactionCallbacks.afterCommit(() -> remember(userId));
+        }
+        return Optional.of(userRepository.getReferenceById(userId));
+    }
+
+    public void created(Long userId) {
+        TransactionCallbacks.afterCommit(() -> remember(userId));
+    }
+
+    public void deleted(Long userId) {
+        forget(userId);
+        TransactionCallbacks.afterCommit(() -> forget(userId));
+    }
+
+    private boolean isKnown(long userId) {
+        if (!fitsBitmap(userId)) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return knownIds.get((int) userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void remember(long userId) {
+        if (!fitsBitmap(userId)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            knownIds.set((int) userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void forget(long userId) {
+        if (!fitsBitmap(userId)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            knownIds.clear((int) userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean fitsBitmap(long userId) {
+        return userId >= 0 && userId <= Integer.MAX_VALUE;
+    }
+}
@@ -1,11 +1,15 @@
 package ru.practicum.shareit.user;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.user.model.User;
 
-import java.util.Optional;
+import java.util.stream.Stream;
 
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -13,5 +17,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT count(u) > 0 FROM User u WHERE u.email = :email")
     boolean existsByEmail(@Param("email") String email);
 
-    Optional<User> findByEmail(String email);
+    @Query("SELECT u.email FROM User u")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<String> streamAllEmails();
+
+    /**
+     * Физическое удаление строки в обход @SQLDelete - последний шаг очистки пользователя.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM users WHERE id = :id", nativeQuery = true)
+    void hardDeleteById(@Param("id") Long id);
 }
@@ -2,21 +2,21 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
-import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.user.dto.CreateUserDto;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.email.UserEmailIndex;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.purge.UserPurgeWorker;
 import ru.practicum.shareit.validator.CentralValidator;
 
 import java.util.Collection;
-import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -26,8 +26,9 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final CentralValidator centralValidator;
-    private final BookingRepository bookingRepository;
-    private final ItemRepository itemRepository;
+    private final UserReferenceResolver userReferences;
+    private final UserEmailIndex emailIndex;
+    private final UserPurgeWorker purgeWorker;
 
 
     @Override
@@ -50,9 +51,10 @@ public class UserServiceImpl implements UserService {
     public UserDto createUser(CreateUserDto createUserDto) {
         log.info("Попытка создания нового пользователя: email={}, name={}", createUserDto.getEmail(), createUserDto.getName());
         User createdUser = UserMapper.dtoToNewUser(createUserDto);
-        if (userRepository.findByEmail(createdUser.getEmail()).isPresent())
+        if (emailIndex.mightBeTaken(createdUser.getEmail()) && userRepository.existsByEmail(createdUser.getEmail()))
             throw new ConflictException("Такой email уже существует");
-        User resultUser = userRepository.save(createdUser);
+        User resultUser = saveCheckingEmail(createdUser, "Такой email уже существует");
+        userReferences.created(resultUser.getId());
         log.info("Попытка создания нового пользователя:  id={}", resultUser.getId());
         return UserMapper.userToDto(resultUser);
     }
@@ -66,21 +68,43 @@ public class UserServiceImpl implements UserService {
         User existingUser = userRepository.findById(id).orElseThrow(() -> new NotFoundException("Пользователь не найден"));
         centralValidator.updatedUserEmailIsTaken(existingUser, updateUserDto);
         User updatedUser = UserMapper.dtoToUpdatedUser(existingUser, updateUserDto);
-        User resultUser = userRepository.save(updatedUser);
+        User resultUser = saveCheckingEmail(updatedUser, "Email уже занят другим пользователем");
         log.info("Успешное обновление пользователя с ID: {}", id);
         return UserMapper.userToDto(resultUser);
     }
 
+    /**
+     * Пользователь сразу получает надгробие (deleted = true) и перестаёт находиться, его вещи - недоступны;
+     * бронирования, комментарии, вещи и запросы удаляет {@link UserPurgeWorker} пачками после коммита.
+     */
     @Transactional
     @Override
     public void deleteUser(Long id) {
         if (id == null) {
             throw new ValidationException("отсутствует Id пользователя");
         }
-        List<Long> userItemIds = itemRepository.findAllIdsByOwner_Id(id);
-        bookingRepository.deleteAllByItemIdsIn(userItemIds);
-        itemRepository.deleteAllByIdIn(userItemIds);
+        if (!userRepository.existsById(id)) {
+            log.info("Пользователь с ID {} не найден или уже удален", id);
+            return;
+        }
         userRepository.deleteById(id);
-        log.info("Пользователь с ID {} удален", id);
+        userReferences.deleted(id);
+        purgeWorker.enqueue(id);
+        log.info("Пользователь с ID {} удален, данные будут очищены в фоне", id);
+    }
+
+    /**
+     * Предпроверка email лишь экономит запросы; при гонке двух регистраций спор решает UQ_USER_EMAIL.
+     */
+    private User saveCheckingEmail(User user, String conflictMessage) {
+        try {
+            return userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            if (UserEmailIndex.isEmailViolation(e)) {
+                log.warn("БД отклонила email {}: уже занят", user.getEmail());
+                throw new ConflictException(conflictMessage);
+            }
+            throw e;
+        }
     }
 }
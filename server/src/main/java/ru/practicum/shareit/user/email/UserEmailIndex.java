@@ -0,0 +1,105 @@
+package ru.practicum.shareit.user.email;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.util.Iterator;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Фильтр Блума зарегистрированных email: отрицательный ответ означает, что email точно свободен,
+ * и запрос к users.email не нужен. Удаления и смены email фильтр не забывает - это лишь ложные
+ * срабатывания, которые проверяются по БД и устраняются плановой перестройкой. До первой сборки
+ * фильтр отвечает "возможно занят". Окончательную уникальность гарантирует ограничение UQ_USER_EMAIL.
+ */
+@Slf4j
+@Component
+public class UserEmailIndex {
+    private static final String EMAIL_CONSTRAINT = "uq_user_email";
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Counter skippedLookups;
+    private volatile EmailBloomFilter filter;
+    // email, добавленные во время перестройки, пишутся и в собираемый фильтр
+    private volatile EmailBloomFilter building;
+    // не synchronized: перестройка читает БД, а монитор закрепил бы виртуальный поток планировщика за несущим
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public UserEmailIndex(UserRepository userRepository,
+                          TransactionTemplate transactionTemplate,
+                          @Value("${shareit.users.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                          @Value("${shareit.users.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                          MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.skippedLookups = Counter.builder("shareit.users.email-filter.skipped.lookups").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${shareit.users.email-filter.rebuild-interval:PT6H}",
+            fixedDelayString = "${shareit.users.email-filter.rebuild-interval:PT6H}")
+    public void rebuild() {
+        rebuildLock.lock();
+        EmailBloomFilter next = new EmailBloomFilter(expectedInsertions, falsePositiveRate);
+        building = next;
+        try {
+            Long count = transactionTemplate.execute(status -> {
+                long added = 0;
+                try (Stream<String> emails = userRepository.streamAllEmails()) {
+                    for (Iterator<String> iterator = emails.iterator(); iterator.hasNext(); added++) {
+                        next.add(iterator.next());
+                    }
+                }
+                return added;
+            });
+            filter = next;
+            log.info("Фильтр email пользователей перестроен, адресов: {}", count);
+        } finally {
+            building = null;
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * false - email точно не зарегистрирован; true - нужно проверить по БД.
+     */
+    public boolean mightBeTaken(String email) {
+        EmailBloomFilter current = filter;
+        if (current == null || current.mightContain(email)) {
+            return true;
+        }
+        skippedLookups.increment();
+        return false;
+    }
+
+    public void registered(String email) {
+        EmailBloomFilter current = filter;
+        if (current != null) {
+            current.add(email);
+        }
+        EmailBloomFilter next = building;
+        if (next != null) {
+            next.add(email);
+        }
+    }
+
+    public static boolean isEmailViolation(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase().contains(EMAIL_CONSTRAINT);
+    }
+}
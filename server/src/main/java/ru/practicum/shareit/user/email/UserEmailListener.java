@@ -0,0 +1,24 @@
+package ru.practicum.shareit.user.email;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Добавляет email в {@link UserEmailIndex} при любом сохранении пользователя, в том числе мимо UserService.
+ * Откат транзакции оставляет в фильтре лишний email - это ложное срабатывание, а не ошибка.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserEmailListener {
+    private final ObjectProvider<UserEmailIndex> emailIndex;
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(User user) {
+        emailIndex.getObject().registered(user.getEmail());
+    }
+}
@@ -4,6 +4,11 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.SQLRestriction;
+import ru.practicum.shareit.user.email.UserEmailListener;
 
 
 @Getter
@@ -12,6 +17,10 @@ import lombok.*;
 @AllArgsConstructor
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@EntityListeners(UserEmailListener.class)
+@SQLDelete(sql = "UPDATE users SET deleted = true WHERE id = ?")
+@SQLRestriction("deleted = false")
 @NoArgsConstructor
 public class User {
     @Id
@@ -23,5 +32,14 @@ public class User {
     @NotBlank(message = "Email is mandatory")
     @Email(message = "Email should be valid")
     private String email;
+    /**
+     * Надгробие до конца фоновой очистки. Не @SoftDelete: тот запрещает LAZY-ссылки на User из Item, Booking,
+     * Comment и ItemRequest.
+     */
+    @Column(name = "deleted", nullable = false)
+    private boolean deleted;
 
+    public User(Long id, String name, String email) {
+        this(id, name, email, false);
+    }
 }
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.user.purge;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Незавершённая очистка данных удалённого пользователя; строка удаляется вместе с пользователем.
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "user_purges")
+public class UserPurge {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "phase", nullable = false)
+    private UserPurgePhase phase;
+    @Column(name = "deleted_rows", nullable = false)
+    private long deletedRows;
+    @Column(name = "requested_at", nullable = false)
+    private LocalDateTime requestedAt;
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.user.purge;
+
+/**
+ * Фазы очистки в порядке внешних ключей: сначала то, что ссылается на вещи и запросы, последним - сам пользователь.
+ */
+public enum UserPurgePhase {
+    BOOKINGS,
+    COMMENTS,
+    ITEMS,
+    REQUESTS,
+    USER
+}
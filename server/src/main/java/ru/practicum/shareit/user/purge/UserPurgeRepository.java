@@ -0,0 +1,20 @@
+package ru.practicum.shareit.user.purge;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface UserPurgeRepository extends JpaRepository<UserPurge, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM UserPurge p WHERE p.userId = :userId")
+    Optional<UserPurge> findForUpdate(@Param("userId") Long userId);
+
+    @Query("SELECT p.userId FROM UserPurge p ORDER BY p.requestedAt")
+    List<Long> findAllUserIds();
+}
@@ -0,0 +1,275 @@
+package ru.practicum.shareit.user.purge;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.overlap.BookingOverlapIndex;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.suggest.ItemNameSuggestIndex;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryService;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.RequestRepository;
+import ru.practicum.shareit.request.feed.RequestFeedCache;
+import ru.practicum.shareit.request.match.ItemMatchIndex;
+import ru.practicum.shareit.transaction.TransactionCallbacks;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Фоновая очистка данных удалённого пользователя. deleteUser лишь ставит надгробие (users.deleted)
+ * и строку в user_purges; здесь бронирования, комментарии, вещи и запросы удаляются пачками по
+ * batch-size строк, каждая пачка - отдельная короткая транзакция. Фаза и счётчик хранятся в user_purges,
+ * поэтому после перезапуска очистка продолжается с места остановки. Строка user_purges блокируется
+ * на время пачки, так что несколько экземпляров приложения не обрабатывают одного пользователя одновременно.
+ * Вещи пользователя до фазы ITEMS остаются в таблице, поэтому ещё при надгробии они становятся недоступными
+ * и пропадают из поиска, подсказок и подбора: бронирование, созданное после фазы BOOKINGS, молча удалил бы каскад.
+ */
+@Slf4j
+@Component
+public class UserPurgeWorker {
+    private final UserPurgeRepository purgeRepository;
+    private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRepository itemRepository;
+    private final RequestRepository requestRepository;
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final ItemBookingSummaryService summaryService;
+    private final BookingOverlapIndex overlapIndex;
+    private final ItemSearchEngine searchEngine;
+    private final ItemSearchCache searchCache;
+    private final ItemNameSuggestIndex suggestIndex;
+    private final RequestFeedCache feedCache;
+    private final ItemMatchIndex matchIndex;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
+    private final Pageable batch;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(Thread.ofPlatform().name("user-purge").daemon().factory());
+    private final Map<Long, CompletableFuture<Void>> running = new ConcurrentHashMap<>();
+
+    public UserPurgeWorker(UserPurgeRepository purgeRepository, UserRepository userRepository, BookingRepository bookingRepository,
+                           CommentRepository commentRepository, ItemRepository itemRepository, RequestRepository requestRepository,
+                           ItemBookingSummaryRepository summaryRepository, ItemBookingSummaryService summaryService,
+                           BookingOverlapIndex overlapIndex, ItemSearchEngine searchEngine, ItemSearchCache searchCache,
+                           ItemNameSuggestIndex suggestIndex, RequestFeedCache feedCache, ItemMatchIndex matchIndex,
+                           EntityManagerFactory entityManagerFactory,
+                           TransactionTemplate transactionTemplate,
+                           @Value("${shareit.users.purge.batch-size:500}") int batchSize,
+                           MeterRegistry meterRegistry) {
+        this.purgeRepository = purgeRepository;
+        this.userRepository = userRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.itemRepository = itemRepository;
+        this.requestRepository = requestRepository;
+        this.summaryRepository = summaryRepository;
+        this.summaryService = summaryService;
+        this.overlapIndex = overlapIndex;
+        this.searchEngine = searchEngine;
+        this.searchCache = searchCache;
+        this.suggestIndex = suggestIndex;
+        this.feedCache = feedCache;
+        this.matchIndex = matchIndex;
+        this.entityManagerFactory = entityManagerFactory;
+        this.transactionTemplate = transactionTemplate;
+        this.batch = PageRequest.of(0, batchSize);
+        Gauge.builder("shareit.users.purge.running", running, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Ставит очистку в очередь и скрывает вещи пользователя в текущей транзакции; обработка начнётся после её коммита.
+     */
+    public void enqueue(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        purgeRepository.save(UserPurge.builder().userId(userId).phase(UserPurgePhase.BOOKINGS).requestedAt(now).updatedAt(now).build());
+        hideItems(userId);
+        TransactionCallbacks.afterCommit(() -> submit(userId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        List<Long> pending = purgeRepository.findAllUserIds();
+        if (!pending.isEmpty()) {
+            log.info("Продолжение очистки удалённых пользователей: {}", pending);
+            pending.forEach(this::submit);
+        }
+    }
+
+    /**
+     * Запись в running появляется до старта задачи и снимается только своей задачей: быстрая очистка
+     * не успеет удалить её раньше вставки, а завершение старой задачи не снимет запись новой.
+     */
+    public CompletableFuture<Void> submit(Long userId) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        CompletableFuture<Void> existing = running.putIfAbsent(userId, future);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture.runAsync(() -> purge(userId), executor).whenComplete((result, error) -> {
+            running.remove(userId, future);
+            if (error != null) {
+                log.error("Очистка пользователя ID: {} прервана, продолжится при следующем запуске", userId, error);
+                future.completeExceptionally(error);
+            } else {
+                future.complete(null);
+            }
+        });
+        return future;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void purge(Long userId) {
+        while (Boolean.TRUE.equals(transactionTemplate.execute(status -> step(userId)))) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Одна пачка текущей фазы. false - очистка закончена или уже выполнена другим экземпляром.
+     */
+    private boolean step(Long userId) {
+        UserPurge purge = purgeRepository.findForUpdate(userId).orElse(null);
+        if (purge == null) {
+            return false;
+        }
+        UserPurgePhase phase = purge.getPhase();
+        if (phase == UserPurgePhase.USER && hasReferences(userId)) {
+            // запись другого экземпляра, ещё не знающего о надгробии, прошла после своей фазы: фазы повторяются,
+            // иначе её удалил бы каскад или остановил внешний ключ comments
+            log.info("Очистка пользователя ID: {}: найдены строки, записанные после надгробия, фазы повторяются", userId);
+            purge.setPhase(UserPurgePhase.BOOKINGS);
+            purge.setUpdatedAt(LocalDateTime.now());
+            return true;
+        }
+        int deleted = switch (phase) {
+            case BOOKINGS -> purgeBookings(userId);
+            case COMMENTS -> purgeComments(userId);
+            case ITEMS -> purgeItems(userId);
+            case REQUESTS -> purgeRequests(userId);
+            case USER -> purgeUser(userId);
+        };
+        if (phase == UserPurgePhase.USER) {
+            purgeRepository.delete(purge);
+            log.info("Очистка пользователя ID: {} завершена, удалено строк: {}", userId, purge.getDeletedRows() + deleted);
+            return false;
+        }
+        purge.setDeletedRows(purge.getDeletedRows() + deleted);
+        purge.setUpdatedAt(LocalDateTime.now());
+        if (deleted < batch.getPageSize()) {
+            purge.setPhase(UserPurgePhase.values()[phase.ordinal() + 1]);
+            log.debug("Очистка пользователя ID: {}: фаза {} завершена, удалено строк: {}", userId, phase, purge.getDeletedRows());
+        }
+        return true;
+    }
+
+    private void hideItems(Long userId) {
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(userId, Pageable.unpaged());
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        itemRepository.markUnavailableByOwnerId(userId);
+        searchEngine.removeAll(itemIds);
+        searchCache.invalidateAll();
+        suggestIndex.untrack(itemIds);
+        matchIndex.untrack(itemIds);
+    }
+
+    private boolean hasReferences(Long userId) {
+        Pageable first = PageRequest.of(0, 1);
+        return !bookingRepository.findIdsByItemOwnerOrBooker(userId, first).isEmpty()
+                || !commentRepository.findIdsByItemOwnerOrAuthor(userId, first).isEmpty()
+                || !itemRepository.findIdsByOwnerId(userId, first).isEmpty()
+                || !requestRepository.findIdsByRequesterId(userId, first).isEmpty();
+    }
+
+    private int purgeBookings(Long userId) {
+        // бронирования на вещах пользователя и его собственные бронирования чужих вещей
+        List<Long> bookingIds = bookingRepository.findIdsByItemOwnerOrBooker(userId, batch);
+        if (bookingIds.isEmpty()) {
+            return 0;
+        }
+        List<Long> itemIds = bookingRepository.findItemIdsByIdIn(bookingIds);
+        bookingRepository.deleteAllByIdIn(bookingIds);
+        itemIds.forEach(summaryService::markStale);
+        overlapIndex.evictItems(itemIds);
+        return bookingIds.size();
+    }
+
+    private int purgeComments(Long userId) {
+        List<Long> commentIds = commentRepository.findIdsByItemOwnerOrAuthor(userId, batch);
+        if (!commentIds.isEmpty()) {
+            commentRepository.deleteAllByIdIn(commentIds);
+        }
+        return commentIds.size();
+    }
+
+    private int purgeItems(Long userId) {
+        List<Long> itemIds = itemRepository.findIdsByOwnerId(userId, batch);
+        if (itemIds.isEmpty()) {
+            return 0;
+        }
+        summaryRepository.deleteAllByItemIdIn(itemIds);
+        itemRepository.deleteAllByIdIn(itemIds);
+        searchEngine.removeAll(itemIds);
+        searchCache.invalidateAll();
+        suggestIndex.untrack(itemIds);
+        matchIndex.untrack(itemIds);
+        TransactionCallbacks.afterCommit(() -> {
+            Cache cache = entityManagerFactory.getCache();
+            itemIds.forEach(itemId -> cache.evict(Item.class, itemId));
+        });
+        return itemIds.size();
+    }
+
+    private int purgeRequests(Long userId) {
+        List<Long> requestIds = requestRepository.findIdsByRequesterId(userId, batch);
+        if (requestIds.isEmpty()) {
+            return 0;
+        }
+        // вещи других пользователей, созданные в ответ на запросы, остаются, но без ссылки на запрос
+        itemRepository.detachFromRequests(requestIds);
+        requestRepository.deleteAllByIdIn(requestIds);
+        feedCache.invalidate();
+        TransactionCallbacks.afterCommit(() -> {
+            Cache cache = entityManagerFactory.getCache();
+            requestIds.forEach(requestId -> cache.evict(ItemRequest.class, requestId));
+        });
+        return requestIds.size();
+    }
+
+    private int purgeUser(Long userId) {
+        userRepository.hardDeleteById(userId);
+        TransactionCallbacks.afterCommit(() -> entityManagerFactory.getCache().evict(User.class, userId));
+        return 1;
+    }
+}
@@ -7,6 +7,7 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.dto.UpdateUserDto;
+import ru.practicum.shareit.user.email.UserEmailIndex;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.Objects;
@@ -15,10 +16,11 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class CentralValidator {
     private final UserRepository userRepository;
+    private final UserEmailIndex emailIndex;
 
     public void updatedUserEmailIsTaken(User existingUser, UpdateUserDto updateUserDto) {
         String newEmail = updateUserDto.getEmail();
-        if (newEmail != null && !existingUser.getEmail().equals(newEmail) && userRepository.existsByEmail(newEmail)) {
+        if (newEmail != null && !existingUser.getEmail().equals(newEmail) && emailIndex.mightBeTaken(newEmail) && userRepository.existsByEmail(newEmail)) {
             throw new ConflictException("Email уже занят другим пользователем");
         }
     }
@@ -0,0 +1,79 @@
+-- V1 - схема до перехода на Flyway, на ней же baseline существующих баз. Всё, что добавлено к бронированиям позже,
+-- применяется здесь, иначе базы с baseline-version=1 остались бы без версии и ограничения пересечений.
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+-- Бронирования вещи: списки владельца через items.owner_id, загрузка интервалов в BookingOverlapIndex и поиск пересечений ниже
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_ITEM_START ON bookings (item_id, start_date DESC, id DESC);
+
+-- Базы до Flyway могли накопить двойные бронирования, на которых ALTER ниже прервал бы миграцию.
+-- Активные бронирования с окончанием раньше начала и более поздние (по ID) из пересекающихся переводятся
+-- в REJECTED: раньше созданное бронирование было принято первым. Число отклонённых пишется в лог миграции.
+DO $$
+DECLARE
+    booking RECORD;
+    inverted BIGINT;
+    overlapping BIGINT := 0;
+BEGIN
+    UPDATE bookings SET status = 'REJECTED' WHERE status IN ('WAITING', 'APPROVED') AND end_date < start_date;
+    GET DIAGNOSTICS inverted = ROW_COUNT;
+    IF inverted > 0 THEN
+        RAISE WARNING 'V2: отклонено активных бронирований с end_date < start_date: %', inverted;
+    END IF;
+
+    FOR booking IN SELECT b.id, b.item_id, b.start_date, b.end_date FROM bookings b
+                   WHERE b.status IN ('WAITING', 'APPROVED') ORDER BY b.id LOOP
+        IF EXISTS (SELECT 1 FROM bookings k
+                   WHERE k.item_id = booking.item_id AND k.id < booking.id AND k.status IN ('WAITING', 'APPROVED')
+                   AND tsrange(k.start_date, k.end_date) && tsrange(booking.start_date, booking.end_date)) THEN
+            UPDATE bookings SET status = 'REJECTED' WHERE id = booking.id;
+            overlapping := overlapping + 1;
+        END IF;
+    END LOOP;
+    IF overlapping > 0 THEN
+        RAISE WARNING 'V2: отклонено пересекающихся активных бронирований: %', overlapping;
+    END IF;
+END $$;
+
+ALTER TABLE bookings ADD CONSTRAINT EX_BOOKING_OVERLAP
+    EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&) WHERE (status IN ('WAITING', 'APPROVED'));
+
+-- Завершённые строки с end_date <= start_date не исправить автоматически: новые строки проверяются сразу,
+-- а существующие - только если таких нет. Иначе ограничение остаётся NOT VALID до ручной правки и VALIDATE CONSTRAINT.
+ALTER TABLE bookings ADD CONSTRAINT CH_BOOKING_DATES CHECK (end_date > start_date) NOT VALID;
+DO $$
+DECLARE
+    invalid BIGINT;
+BEGIN
+    SELECT count(*) INTO invalid FROM bookings WHERE end_date <= start_date;
+    IF invalid = 0 THEN
+        ALTER TABLE bookings VALIDATE CONSTRAINT CH_BOOKING_DATES;
+    ELSE
+        RAISE WARNING 'V2: CH_BOOKING_DATES оставлено NOT VALID, строк с end_date <= start_date: %', invalid;
+    END IF;
+END $$;
+
+-- Списки бронирований арендатора: findAllByBooker_Id*, keyset-пагинация по (start_date, id)
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_BOOKER_START ON bookings (booker_id, start_date DESC, id DESC);
+
+-- findLastBooking: item_id, status = APPROVED, end_date < now ORDER BY end_date DESC
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_ITEM_APPROVED_END ON bookings (item_id, end_date DESC) WHERE status = 'APPROVED';
+
+-- findNextBooking: item_id, status = APPROVED, start_date > now ORDER BY start_date
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_ITEM_APPROVED_START ON bookings (item_id, start_date) WHERE status = 'APPROVED';
+
+-- findAllByOwner_Id, findAllIdsByOwner_Id, списки бронирований владельца
+CREATE INDEX IF NOT EXISTS IX_ITEMS_OWNER ON items (owner_id);
+
+-- findAllByRequestIdIn, findAllByRequestId: большинство вещей создаётся без запроса
+CREATE INDEX IF NOT EXISTS IX_ITEMS_REQUEST ON items (request_id) WHERE request_id IS NOT NULL;
+
+-- findAllByItem_Id, findAllByItemIdsIn
+CREATE INDEX IF NOT EXISTS IX_COMMENTS_ITEM ON comments (item_id);
+
+-- findAllByRequester_Id ORDER BY created DESC
+CREATE INDEX IF NOT EXISTS IX_REQUESTS_REQUESTER_CREATED ON requests (requester_id, created DESC);
+
+-- findAllByRequester_IdNot ORDER BY created DESC
+CREATE INDEX IF NOT EXISTS IX_REQUESTS_CREATED ON requests (created DESC);
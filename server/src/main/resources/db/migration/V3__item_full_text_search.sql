@@ -0,0 +1,8 @@
+-- Полнотекстовый поиск вещей: название весомее описания, конфигурация simple без стемминга
+ALTER TABLE items ADD COLUMN IF NOT EXISTS search_vector tsvector
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(description, '')), 'B')
+    ) STORED;
+
+CREATE INDEX IF NOT EXISTS IX_ITEMS_SEARCH_VECTOR ON items USING gin (search_vector);
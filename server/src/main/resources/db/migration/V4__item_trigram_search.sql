@@ -0,0 +1,6 @@
+-- Инфиксный поиск вещей: LIKE '%text%' и операторы схожести pg_trgm по нижнему регистру
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS IX_ITEMS_NAME_TRGM ON items USING gin (lower(name) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS IX_ITEMS_DESCRIPTION_TRGM ON items USING gin (lower(description) gin_trgm_ops);
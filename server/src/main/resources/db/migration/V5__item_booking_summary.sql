@@ -0,0 +1,32 @@
+-- Материализованные последнее и ближайшее APPROVED-бронирование вещи (ItemBookingSummary).
+-- valid_until - момент, когда пара сменится сама собой: начало ближайшего или конец текущего бронирования.
+CREATE TABLE IF NOT EXISTS item_booking_summary (
+item_id BIGINT PRIMARY KEY REFERENCES items(id) ON DELETE CASCADE,
+last_booking_id BIGINT,
+last_start TIMESTAMP,
+last_end TIMESTAMP,
+next_booking_id BIGINT,
+next_start TIMESTAMP,
+next_end TIMESTAMP,
+valid_until TIMESTAMP
+);
+
+-- ItemBookingSummaryJob: строки, у которых valid_until уже наступил
+CREATE INDEX IF NOT EXISTS IX_ITEM_BOOKING_SUMMARY_VALID_UNTIL ON item_booking_summary (valid_until) WHERE valid_until IS NOT NULL;
+
+-- Первичное заполнение; время приложения хранится в UTC (hibernate.jdbc.time_zone)
+INSERT INTO item_booking_summary (item_id, last_booking_id, last_start, last_end, next_booking_id, next_start, next_end, valid_until)
+SELECT i.id, lb.id, lb.start_date, lb.end_date, nb.id, nb.start_date, nb.end_date,
+       LEAST(nb.start_date, ce.end_date)
+FROM items i
+CROSS JOIN LATERAL (SELECT now() AT TIME ZONE 'UTC' AS ts) n
+LEFT JOIN LATERAL (SELECT b.id, b.start_date, b.end_date FROM bookings b
+                   WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.end_date < n.ts
+                   ORDER BY b.end_date DESC LIMIT 1) lb ON TRUE
+LEFT JOIN LATERAL (SELECT b.id, b.start_date, b.end_date FROM bookings b
+                   WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.start_date > n.ts
+                   ORDER BY b.start_date LIMIT 1) nb ON TRUE
+LEFT JOIN LATERAL (SELECT min(b.end_date) AS end_date FROM bookings b
+                   WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.end_date >= n.ts) ce ON TRUE
+WHERE EXISTS (SELECT 1 FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED')
+ON CONFLICT (item_id) DO NOTHING;
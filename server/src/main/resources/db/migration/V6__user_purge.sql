@@ -0,0 +1,18 @@
+-- Надгробие пользователя (users.deleted, @SQLRestriction в User): строка остаётся до конца фоновой очистки UserPurgeWorker
+ALTER TABLE users ADD COLUMN IF NOT EXISTS deleted BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- email удалённого пользователя сразу свободен для новой регистрации
+ALTER TABLE users DROP CONSTRAINT IF EXISTS UQ_USER_EMAIL;
+CREATE UNIQUE INDEX IF NOT EXISTS UQ_USER_EMAIL ON users (email) WHERE NOT deleted;
+
+-- Очередь очистки: фаза и число удалённых строк переживают перезапуск
+CREATE TABLE IF NOT EXISTS user_purges (
+user_id BIGINT PRIMARY KEY,
+phase VARCHAR(20) NOT NULL,
+deleted_rows BIGINT NOT NULL DEFAULT 0,
+requested_at TIMESTAMP NOT NULL,
+updated_at TIMESTAMP NOT NULL
+);
+
+-- Пачки очистки: бронирования арендатора уже покрыты IX_BOOKINGS_BOOKER_START, комментарии автора - нет
+CREATE INDEX IF NOT EXISTS IX_COMMENTS_AUTHOR ON comments (author_id);
@@ -0,0 +1,3 @@
+-- Лента /requests/all: keyset-пагинация по (created, id); заменяет IX_REQUESTS_CREATED
+CREATE INDEX IF NOT EXISTS IX_REQUESTS_CREATED_ID ON requests (created DESC, id DESC);
+DROP INDEX IF EXISTS IX_REQUESTS_CREATED;
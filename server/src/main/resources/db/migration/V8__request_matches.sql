@@ -0,0 +1,11 @@
+-- Кандидаты RequestMatcher: вещи других владельцев, подходящие под описание запроса
+CREATE TABLE IF NOT EXISTS request_matches (
+id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+request_id BIGINT NOT NULL REFERENCES requests(id) ON DELETE CASCADE,
+item_id BIGINT NOT NULL REFERENCES items(id) ON DELETE CASCADE,
+score DOUBLE PRECISION NOT NULL,
+CONSTRAINT UQ_REQUEST_MATCH UNIQUE (request_id, item_id)
+);
+
+-- каскадное удаление вещи
+CREATE INDEX IF NOT EXISTS IX_REQUEST_MATCHES_ITEM ON request_matches (item_id);
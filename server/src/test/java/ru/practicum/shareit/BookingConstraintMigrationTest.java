@@ -0,0 +1,76 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * База с baseline на V1, где уже есть двойные бронирования: V2 должна отклонить лишние и дойти до конца.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class BookingConstraintMigrationTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Test
+    void v2_ShouldRejectLaterOverlappingBookingsBeforeAddingConstraints() throws SQLException {
+        migrate("1");
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (name, email) VALUES ('owner', 'owner@mail.ru')");
+            statement.execute("INSERT INTO items (name, description, available, owner_id) VALUES ('Дрель', 'Ударная', TRUE, 1)");
+            statement.execute("""
+                    INSERT INTO bookings (start_date, end_date, booker_id, item_id, status) VALUES
+                    (TIMESTAMP '2030-01-01', TIMESTAMP '2030-01-03', 1, 1, 'APPROVED'),
+                    (TIMESTAMP '2030-01-02', TIMESTAMP '2030-01-04', 1, 1, 'WAITING'),
+                    (TIMESTAMP '2030-01-03', TIMESTAMP '2030-01-05', 1, 1, 'WAITING'),
+                    (TIMESTAMP '2030-01-09', TIMESTAMP '2030-01-08', 1, 1, 'APPROVED'),
+                    (TIMESTAMP '2030-01-02', TIMESTAMP '2030-01-04', 1, 1, 'CANCELED')""");
+        }
+
+        migrate(null);
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            List<String> statuses = new ArrayList<>();
+            try (ResultSet resultSet = statement.executeQuery("SELECT status FROM bookings ORDER BY id")) {
+                while (resultSet.next()) {
+                    statuses.add(resultSet.getString(1));
+                }
+            }
+            assertThat(statuses, contains("APPROVED", "REJECTED", "WAITING", "REJECTED", "CANCELED"));
+            try (ResultSet resultSet = statement.executeQuery("SELECT convalidated FROM pg_constraint WHERE conname = 'ch_booking_dates'")) {
+                resultSet.next();
+                assertThat(resultSet.getBoolean(1), is(false));
+            }
+        }
+    }
+
+    private static void migrate(String target) {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .target(target == null ? "latest" : target)
+                .load()
+                .migrate();
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}
+// CHECKSTYLE:ON
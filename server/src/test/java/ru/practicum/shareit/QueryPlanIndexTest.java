@@ -0,0 +1,197 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.containsString;
+
+/**
+ * Прогоняет миграции Flyway на PostgreSQL и проверяет планы горячих запросов репозиториев.
+ * SQL повторяет то, что Hibernate генерирует для соответствующих методов. Последовательное
+ * сканирование запрещено на уровне сессии, поэтому Seq Scan в плане означает, что под запрос
+ * нет подходящего индекса.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class QueryPlanIndexTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    INSERT INTO users (name, email)
+                    SELECT 'user' || g, 'user' || g || '@mail.ru' FROM generate_series(1, 200) g""");
+            statement.execute("""
+                    INSERT INTO requests (description, requester_id, created)
+                    SELECT 'request ' || g, 1 + g % 200, TIMESTAMP '2030-01-01' - g * INTERVAL '1 hour'
+                    FROM generate_series(1, 1000) g""");
+            statement.execute("""
+                    INSERT INTO items (name, description, available, owner_id, request_id)
+                    SELECT 'item ' || g, 'description ' || g, g % 3 <> 0, 1 + g % 200,
+                           CASE WHEN g % 10 = 0 THEN 1 + g % 1000 END
+                    FROM generate_series(1, 2000) g""");
+            // на каждую вещь приходится одно бронирование раз в 2000 дней, поэтому EX_BOOKING_OVERLAP не срабатывает
+            statement.execute("""
+                    INSERT INTO bookings (start_date, end_date, booker_id, item_id, status)
+                    SELECT TIMESTAMP '2000-01-01' + g * INTERVAL '1 day',
+                           TIMESTAMP '2000-01-01' + g * INTERVAL '1 day' + INTERVAL '12 hours',
+                           1 + (g * 7) % 200, 1 + g % 2000,
+                           (ARRAY['APPROVED', 'WAITING', 'REJECTED', 'CANCELED'])[1 + g % 4]
+                    FROM generate_series(1, 20000) g""");
+            statement.execute("""
+                    INSERT INTO comments (text, item_id, author_id, created)
+                    SELECT 'comment ' || g, 1 + g % 2000, 1 + g % 200, TIMESTAMP '2030-01-01'
+                    FROM generate_series(1, 5000) g""");
+            statement.execute("ANALYZE");
+        }
+    }
+
+    static Stream<Arguments> hotQueries() {
+        return Stream.of(
+                Arguments.of("findAllByBooker_Id", """
+                        SELECT * FROM bookings b WHERE b.booker_id = ?
+                        ORDER BY b.start_date DESC, b.id DESC LIMIT 10""", List.of(5L)),
+                Arguments.of("findAllByBooker_IdAndEndDateBefore", """
+                        SELECT * FROM bookings b WHERE b.booker_id = ? AND b.end_date < ?
+                        ORDER BY b.start_date DESC, b.id DESC LIMIT 10""", List.of(5L, NOW)),
+                Arguments.of("findAllByBooker_IdAndStatus", """
+                        SELECT * FROM bookings b WHERE b.booker_id = ? AND b.status = ?
+                        ORDER BY b.start_date DESC, b.id DESC LIMIT 10""", List.of(5L, "WAITING")),
+                Arguments.of("findBookerBookingsAfter", """
+                        SELECT * FROM bookings b WHERE b.booker_id = ?
+                        AND (b.start_date < ? OR (b.start_date = ? AND b.id < ?))
+                        ORDER BY b.start_date DESC, b.id DESC LIMIT 10""", List.of(5L, NOW, NOW, 10_000L)),
+                Arguments.of("findAllByItem_Owner_Id", """
+                        SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id WHERE i.owner_id = ?
+                        ORDER BY b.start_date DESC, b.id DESC LIMIT 10""", List.of(5L)),
+                Arguments.of("findOwnerBookingsWithStatusAfter", """
+                        SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id
+                        WHERE i.owner_id = ? AND b.status = ?
+                        AND (b.start_date < ? OR (b.start_date = ? AND b.id < ?))
+                        ORDER BY b.start_date DESC, b.id DESC LIMIT 10""", List.of(5L, "WAITING", NOW, NOW, 10_000L)),
+                Arguments.of("findLastBooking", """
+                        SELECT * FROM bookings b WHERE b.item_id = ? AND b.end_date < ? AND b.status = 'APPROVED'
+                        ORDER BY b.end_date DESC LIMIT 1""", List.of(5L, NOW)),
+                Arguments.of("findNextBooking", """
+                        SELECT * FROM bookings b WHERE b.item_id = ? AND b.start_date > ? AND b.status = 'APPROVED'
+                        ORDER BY b.start_date LIMIT 1""", List.of(5L, NOW)),
+                Arguments.of("findEarliestApprovedEndFrom", """
+                        SELECT min(b.end_date) FROM bookings b WHERE b.item_id = ? AND b.end_date >= ? AND b.status = 'APPROVED'""",
+                        List.of(5L, NOW)),
+                Arguments.of("findExpiredItemIds", """
+                        SELECT s.item_id FROM item_booking_summary s WHERE s.valid_until <= ?
+                        ORDER BY s.valid_until LIMIT 500""", List.of(NOW)),
+                Arguments.of("findIntervalsByItemIdAndStatusIn", """
+                        SELECT b.id, b.start_date, b.end_date FROM bookings b
+                        WHERE b.item_id = ? AND b.status IN (?, ?)""", List.of(5L, "WAITING", "APPROVED")),
+                Arguments.of("findByBooker_IdAndItem_IdAndEndDateBefore", """
+                        SELECT * FROM bookings b WHERE b.booker_id = ? AND b.item_id = ? AND b.end_date < ?""",
+                        List.of(5L, 5L, NOW)),
+                Arguments.of("searchAvailableIdsByTsQuery", """
+                        SELECT i.id FROM items i, to_tsquery('simple', ?) q
+                        WHERE i.available AND i.search_vector @@ q
+                        ORDER BY ts_rank(i.search_vector, q) DESC, i.id LIMIT 10""", List.of("item:* & 12:*")),
+                Arguments.of("searchAvailableIdsBySubstring", """
+                        SELECT i.id FROM items i
+                        WHERE i.available AND (lower(i.name) LIKE ? OR lower(i.description) LIKE ?)
+                        ORDER BY i.id LIMIT 10""", List.of("%tem 12%", "%tem 12%")),
+                Arguments.of("searchAvailableIdsBySimilarity", """
+                        SELECT i.id FROM items i
+                        WHERE i.available AND (? <% lower(i.name) OR ? <% lower(i.description))
+                        LIMIT 10""", List.of("descriptoin", "descriptoin")),
+                Arguments.of("findAllByOwner_IdOrderByIdAsc", "SELECT * FROM items i WHERE i.owner_id = ? ORDER BY i.id", List.of(5L)),
+                Arguments.of("findLastAndNextApprovedByOwnerId", """
+                        SELECT ranked.item_id, ranked.kind, ranked.start_date, ranked.end_date
+                        FROM (SELECT b.item_id, b.start_date, b.end_date,
+                                     CASE WHEN b.end_date < ? THEN 'LAST' ELSE 'NEXT' END AS kind,
+                                     ROW_NUMBER() OVER (PARTITION BY b.item_id, CASE WHEN b.end_date < ? THEN 0 ELSE 1 END
+                                                        ORDER BY CASE WHEN b.end_date < ? THEN b.end_date END DESC, b.start_date) AS rn
+                              FROM bookings b JOIN items i ON i.id = b.item_id
+                              WHERE i.owner_id = ? AND b.status = 'APPROVED'
+                              AND (b.end_date < ? OR b.start_date > ?)) ranked
+                        WHERE ranked.rn = 1""", List.of(NOW, NOW, NOW, 5L, NOW, NOW)),
+                Arguments.of("findRequestItemsByRequestIdIn", """
+                        SELECT i.id, i.name, i.owner_id, i.request_id FROM items i WHERE i.request_id IN (?, ?, ?)
+                        ORDER BY i.id""", List.of(10L, 20L, 30L)),
+                Arguments.of("findAllByItemOwnerIdWithAuthor", """
+                        SELECT c.*, u.* FROM comments c JOIN items i ON i.id = c.item_id JOIN users u ON u.id = c.author_id
+                        WHERE i.owner_id = ? ORDER BY c.created""", List.of(5L)),
+                Arguments.of("findAllByRequester_Id", """
+                        SELECT * FROM requests r WHERE r.requester_id = ? ORDER BY r.created DESC""", List.of(5L)),
+                Arguments.of("findOtherUsersRequests", """
+                        SELECT r.*, u.* FROM requests r JOIN users u ON u.id = r.requester_id WHERE r.requester_id <> ?
+                        ORDER BY r.created DESC, r.id DESC LIMIT 11""", List.of(5L)),
+                Arguments.of("findOtherUsersRequestsAfter", """
+                        SELECT r.*, u.* FROM requests r JOIN users u ON u.id = r.requester_id WHERE r.requester_id <> ?
+                        AND (r.created < ? OR (r.created = ? AND r.id < ?))
+                        ORDER BY r.created DESC, r.id DESC LIMIT 11""", List.of(5L, NOW, NOW, 500L)),
+                Arguments.of("findFeedHead", """
+                        SELECT r.*, u.* FROM requests r JOIN users u ON u.id = r.requester_id
+                        ORDER BY r.created DESC, r.id DESC LIMIT 200""", List.of())
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("hotQueries")
+    void hotQueryShouldNotUseSequentialScan(String name, String sql, List<Object> params) throws SQLException {
+        List<String> plan = explain(sql, params);
+
+        assertThat(name + ":\n" + String.join("\n", plan), plan, everyItem(not(containsString("Seq Scan"))));
+    }
+
+    private static List<String> explain(String sql, List<Object> params) throws SQLException {
+        try (Connection connection = connect()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+            }
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (int i = 0; i < params.size(); i++) {
+                    statement.setObject(i + 1, params.get(i));
+                }
+                List<String> plan = new ArrayList<>();
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.add(resultSet.getString(1));
+                    }
+                }
+                return plan;
+            }
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,36 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Замер числа SQL-запросов по статистике Hibernate, которая включена в application.properties.
+ * Счётчики общие на фабрику сессий, поэтому каждый замер начинается со startCounting.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public abstract class StatementCountTestBase {
+
+    @Autowired
+    protected EntityManagerFactory entityManagerFactory;
+
+    protected Statistics startCounting() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    /**
+     * Сущности из кэша второго уровня читаются без запросов, поэтому перед замером он очищается.
+     */
+    protected Statistics startCountingWithEmptyCache() {
+        entityManagerFactory.getCache().evictAll();
+        return startCounting();
+    }
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,212 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Проверки гонок идут на каждой сборке, замер пропускной способности - только с -Dshareit.benchmark=true.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class BookingConcurrencyStressTest {
+
+    private static final int[] THREAD_COUNTS = {1, 2, 4, 8};
+    private static final int BOOKINGS_PER_THREAD = 50;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User owner;
+    private List<User> bookers;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("Stress Owner").email("stress-owner@email.com").build());
+        bookers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            bookers.add(userRepository.save(User.builder().name("Stress Booker " + i).email("stress-booker" + i + "@email.com").build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createBooking_ConcurrentOverlappingRequests_ShouldAcceptExactlyOne() throws Exception {
+        Item item = saveItem("Contended Item");
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        AtomicInteger conflicts = new AtomicInteger();
+
+        List<BookingDto> created = runConcurrently(8, thread -> {
+            try {
+                return bookingService.createBooking(bookers.get(thread).getId(), bookingDto(item, start, start.plusDays(2)));
+            } catch (ConflictException e) {
+                conflicts.incrementAndGet();
+                return null;
+            }
+        });
+
+        assertThat(created.size(), is(1));
+        assertThat(conflicts.get(), is(7));
+        assertThat(bookingRepository.count(), is(1L));
+    }
+
+    @Test
+    void approveBooking_ConcurrentDecisions_ShouldApplyExactlyOne() throws Exception {
+        Item item = saveItem("Approved Item");
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto booking = bookingService.createBooking(bookers.get(0).getId(), bookingDto(item, start, start.plusDays(1)));
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<BookingDto> decided = runConcurrently(8, thread -> {
+            try {
+                return bookingService.approveBooking(owner.getId(), booking.getId(), thread % 2 == 0);
+            } catch (ValidationException e) {
+                rejected.incrementAndGet();
+                return null;
+            }
+        });
+
+        assertThat(decided.size(), is(1));
+        assertThat(rejected.get(), is(7));
+        assertThat(bookingRepository.findById(booking.getId()).orElseThrow().getStatus(), is(decided.get(0).getStatus()));
+    }
+
+    @Test
+    void createBooking_DisjointIntervalsOnOneItem_ShouldLoseNoUpdates() throws Exception {
+        Item item = saveItem("Shared Item");
+        int threads = bookers.size();
+
+        createDisjointBookings(item, threads, LocalDateTime.now().plusDays(1));
+
+        long expected = (long) threads * BOOKINGS_PER_THREAD;
+        assertThat((long) bookingRepository.findIntervalsByItemIdAndStatusIn(item.getId(), EnumSet.of(BookingStatus.WAITING)).size(), is(expected));
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+    void createBooking_DisjointIntervals_ShouldReportThroughput() throws Exception {
+        for (int threads : THREAD_COUNTS) {
+            Item sharedItem = saveItem("Shared Item x" + threads);
+            List<Item> ownItems = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                ownItems.add(saveItem("Own Item " + i + " x" + threads));
+            }
+            LocalDateTime base = LocalDateTime.now().plusDays(1);
+
+            long sharedNanos = createDisjointBookings(sharedItem, threads, base);
+            long ownNanos = measure(threads, thread -> {
+                for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                    LocalDateTime start = base.plusHours(i * 2L);
+                    bookingService.createBooking(bookers.get(thread).getId(), bookingDto(ownItems.get(thread), start, start.plusHours(1)));
+                }
+                return null;
+            });
+
+            long expected = (long) threads * BOOKINGS_PER_THREAD;
+            System.out.printf("Потоков: %d, одна вещь: %.0f бронирований/с, разные вещи: %.0f бронирований/с%n", threads, expected * 1e9 / sharedNanos, expected * 1e9 / ownNanos);
+        }
+    }
+
+    private Item saveItem(String name) {
+        return itemRepository.save(Item.builder().name(name).description("Stress").available(true).owner(owner).build());
+    }
+
+    private static CreateBookingDto bookingDto(Item item, LocalDateTime start, LocalDateTime end) {
+        return CreateBookingDto.builder().itemId(item.getId()).start(start).end(end).build();
+    }
+
+    /**
+     * Потоки бронируют одну вещь чередующимися непересекающимися часами; возвращает затраченное время.
+     */
+    private long createDisjointBookings(Item item, int threads, LocalDateTime base) throws Exception {
+        return measure(threads, thread -> {
+            for (int i = 0; i < BOOKINGS_PER_THREAD; i++) {
+                LocalDateTime start = base.plusHours((long) (i * threads + thread) * 2);
+                bookingService.createBooking(bookers.get(thread).getId(), bookingDto(item, start, start.plusHours(1)));
+            }
+            return null;
+        });
+    }
+
+    private long measure(int threads, ThreadTask<Void> task) throws Exception {
+        long startedAt = System.nanoTime();
+        runConcurrently(threads, task);
+        return System.nanoTime() - startedAt;
+    }
+
+    private <T> List<T> runConcurrently(int threads, ThreadTask<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch ready = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                int thread = i;
+                Callable<T> callable = () -> {
+                    ready.await();
+                    return task.run(thread);
+                };
+                futures.add(executor.submit(callable));
+            }
+            ready.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                T result = future.get(60, TimeUnit.SECONDS);
+                if (result != null) {
+                    results.add(result);
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThreadTask<T> {
+        T run(int thread) throws Exception;
+    }
+}
+// CHECKSTYLE:ON
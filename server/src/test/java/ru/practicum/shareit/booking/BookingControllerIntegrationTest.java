@@ -21,7 +21,9 @@ import java.time.LocalDateTime;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -108,6 +110,15 @@ class BookingControllerIntegrationTest {
                 .andExpect(jsonPath("$[0].id", is(booking.getId().intValue())));
     }
 
+    @Test
+    void findAllUserBookingsWithState_WithCursor_ShouldReturnNextCursorHeader() throws Exception {
+        bookingRepository.save(Booking.builder().startDate(LocalDateTime.now().plusDays(5)).endDate(LocalDateTime.now().plusDays(6)).item(item).booker(booker).status(BookingStatus.WAITING).build());
+
+        String nextCursor = mockMvc.perform(get("/bookings").header("X-Sharer-User-Id", booker.getId()).param("cursor", "").param("size", "1")).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(1))).andExpect(header().exists("X-Next-Cursor")).andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/bookings").header("X-Sharer-User-Id", booker.getId()).param("cursor", nextCursor).param("size", "1")).andExpect(status().isOk()).andExpect(jsonPath("$", hasSize(1))).andExpect(jsonPath("$[0].id", is(booking.getId().intValue()))).andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
     @Test
     void findAllUserBookingsWithState_WithInvalidState_ShouldReturnBadRequest() throws Exception {
         mockMvc.perform(get("/bookings").header("X-Sharer-User-Id", booker.getId()).param("state", "INVALID_STATE").param("from", "0").param("size", "10")).andExpect(status().isBadRequest());
@@ -157,5 +168,22 @@ class BookingControllerIntegrationTest {
         mockMvc.perform(get("/bookings/owner").header("X-Sharer-User-Id", owner.getId()).param("state", "PAST")).andExpect(status().isOk()).andExpect(jsonPath("$").isArray()).andExpect(jsonPath("$.length()").value(1)).andExpect(jsonPath("$[0].id").value(pastBooking.getId())).andExpect(jsonPath("$[0].status").value("APPROVED"));
     }
 
+    @Test
+    void streamAllBookingsOfUserItemsWithState_WithoutUserId_ShouldReturnBadRequestBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/bookings/owner/stream")).andExpect(status().isBadRequest()).andExpect(request().asyncNotStarted());
+    }
+
+    @Test
+    void streamAllBookingsOfUserItemsWithState_WithUnknownUser_ShouldReturnNotFoundBeforeStreaming() throws Exception {
+        mockMvc.perform(get("/bookings/owner/stream").header("X-Sharer-User-Id", owner.getId() + 1000)).andExpect(status().isNotFound()).andExpect(request().asyncNotStarted());
+    }
+
+    @Test
+    void streamAllBookingsOfUserItemsWithState_WithUserOwningNoItems_ShouldReturnNotFoundLikeOtherModes() throws Exception {
+        mockMvc.perform(get("/bookings/owner").header("X-Sharer-User-Id", booker.getId()).param("size", "10")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/bookings/owner").header("X-Sharer-User-Id", booker.getId()).param("cursor", "")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/bookings/owner/stream").header("X-Sharer-User-Id", booker.getId())).andExpect(status().isNotFound()).andExpect(request().asyncNotStarted());
+    }
+
 }
 // CHECKSTYLE:ON
\ No newline at end of file
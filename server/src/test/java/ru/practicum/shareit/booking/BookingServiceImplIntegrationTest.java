@@ -9,9 +9,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursorPage;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.CreateBookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
@@ -20,6 +22,7 @@ import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -115,6 +118,30 @@ class BookingServiceImplIntegrationTest {
         assertThat(result, allOf(hasProperty("id", notNullValue()), hasProperty("status", is(BookingStatus.WAITING)), hasProperty("booker", hasProperty("id", is(booker.getId()))), hasProperty("item", hasProperty("id", is(availableItem.getId())))));
     }
 
+    @Test
+    void createBooking_WithOverlappingActiveBooking_ShouldThrowConflictException() {
+        createBooking(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(3), BookingStatus.WAITING, otherUser);
+        CreateBookingDto createBookingDto = new CreateBookingDto();
+        createBookingDto.setItemId(availableItem.getId());
+        createBookingDto.setStart(LocalDateTime.now().plusDays(2));
+        createBookingDto.setEnd(LocalDateTime.now().plusDays(4));
+
+        assertThatThrownBy(() -> bookingService.createBooking(booker.getId(), createBookingDto)).isInstanceOf(ConflictException.class).hasMessageContaining("Вещь уже забронирована");
+    }
+
+    @Test
+    void createBooking_OverlappingRejectedBooking_ShouldCreateBooking() {
+        createBooking(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(3), BookingStatus.REJECTED, otherUser);
+        CreateBookingDto createBookingDto = new CreateBookingDto();
+        createBookingDto.setItemId(availableItem.getId());
+        createBookingDto.setStart(LocalDateTime.now().plusDays(2));
+        createBookingDto.setEnd(LocalDateTime.now().plusDays(4));
+
+        BookingDto result = bookingService.createBooking(booker.getId(), createBookingDto);
+
+        assertThat(result, hasProperty("status", is(BookingStatus.WAITING)));
+    }
+
     @Test
     void approveBooking_WithNullApproved_ShouldThrowIllegalArgumentException() {
         Booking booking = bookingRepository.save(Booking.builder().startDate(LocalDateTime.now().plusDays(1)).endDate(LocalDateTime.now().plusDays(2)).item(availableItem).booker(booker).status(BookingStatus.WAITING).build());
@@ -180,6 +207,34 @@ class BookingServiceImplIntegrationTest {
         assertThat(result, hasSize(2));
     }
 
+    @Test
+    void findAllUserBookingsAfterCursor_ShouldWalkAllPagesWithoutDuplicates() {
+        LocalDateTime sameStart = LocalDateTime.now().plusDays(10);
+        for (int i = 0; i < 5; i++) {
+            createBooking(sameStart, sameStart.plusDays(1), BookingStatus.REJECTED, booker);
+        }
+        for (int i = 0; i < 3; i++) {
+            createBooking(LocalDateTime.now().plusDays(i + 1), LocalDateTime.now().plusDays(i + 2), BookingStatus.REJECTED, booker);
+        }
+
+        List<Long> seenIds = new ArrayList<>();
+        String cursor = "";
+        do {
+            BookingCursorPage page = bookingService.findAllUserBookingsAfterCursor(booker.getId(), BookingServiceState.REJECTED, cursor, 3);
+            page.getContent().forEach(dto -> seenIds.add(dto.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        List<Long> expectedIds = bookingService.findAllUserBookingsWithState(booker.getId(), BookingServiceState.REJECTED, 0, 100).stream().map(BookingDto::getId).toList();
+        assertThat(seenIds, is(expectedIds));
+        assertThat(seenIds, hasSize(8));
+    }
+
+    @Test
+    void findAllUserBookingsAfterCursor_WithMalformedCursor_ShouldThrowIllegalArgumentException() {
+        assertThatThrownBy(() -> bookingService.findAllUserBookingsAfterCursor(booker.getId(), BookingServiceState.ALL, "not-a-cursor", 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
     @ParameterizedTest
     @EnumSource(value = BookingServiceState.class, names = {"REJECTED", "CURRENT", "WAITING"})
     void findAllBookingsOfUserItemsWithState_WithDifferentStates_ShouldReturnFilteredBookings(BookingServiceState state) {
@@ -192,6 +247,35 @@ class BookingServiceImplIntegrationTest {
         assertThat(result.get(0), hasProperty("id", is(matchingBooking.getId())));
     }
 
+    @Test
+    void findAllBookingsOfUserItemsWithState_WithPaging_ShouldSplitOwnerBookings() {
+        for (int i = 0; i < 5; i++) {
+            createBooking(LocalDateTime.now().plusDays(i * 2L + 1), LocalDateTime.now().plusDays(i * 2L + 2), BookingStatus.APPROVED, booker);
+        }
+
+        List<BookingDto> all = bookingService.findAllBookingsOfUserItemsWithState(owner.getId(), BookingServiceState.ALL);
+        List<BookingDto> secondPage = bookingService.findAllBookingsOfUserItemsWithState(owner.getId(), BookingServiceState.ALL, 2, 2);
+        BookingCursorPage firstCursorPage = bookingService.findAllBookingsOfUserItemsAfterCursor(owner.getId(), BookingServiceState.ALL, "", 2);
+        BookingCursorPage secondCursorPage = bookingService.findAllBookingsOfUserItemsAfterCursor(owner.getId(), BookingServiceState.ALL, firstCursorPage.getNextCursor(), 2);
+
+        assertThat(secondPage.stream().map(BookingDto::getId).toList(), is(List.of(all.get(2).getId(), all.get(3).getId())));
+        assertThat(secondCursorPage.getContent().stream().map(BookingDto::getId).toList(), is(List.of(all.get(2).getId(), all.get(3).getId())));
+    }
+
+    @Test
+    void streamAllBookingsOfUserItemsWithState_ShouldEmitSameBookingsAsList() {
+        for (int i = 0; i < 5; i++) {
+            createBooking(LocalDateTime.now().plusDays(i * 2L + 1), LocalDateTime.now().plusDays(i * 2L + 2), BookingStatus.WAITING, booker);
+        }
+        List<Long> streamedIds = new ArrayList<>();
+
+        bookingService.streamAllBookingsOfUserItemsWithState(owner.getId(), BookingServiceState.WAITING, dto -> streamedIds.add(dto.getId()));
+
+        List<Long> listedIds = bookingService.findAllBookingsOfUserItemsWithState(owner.getId(), BookingServiceState.WAITING, 0, 100).stream().map(BookingDto::getId).toList();
+        assertThat(streamedIds, is(listedIds));
+        assertThat(streamedIds, hasSize(5));
+    }
+
     @Test
     void findAllBookingsOfUserItemsWithState_WithNoItems_ShouldThrowNotFoundException() {
         assertThatThrownBy(() -> bookingService.findAllBookingsOfUserItemsWithState(otherUser.getId(), BookingServiceState.ALL)).isInstanceOf(NotFoundException.class).hasMessageContaining("Вы не являетесь владельцем ни однйо вещи");
@@ -0,0 +1,239 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.booking.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookerDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Буфер на два события и короткий send-timeout, чтобы медленный подписчик отключался за доли секунды.
+ */
+@SpringBootTest(properties = {
+        "shareit.bookings.events.buffer-size=2",
+        "shareit.bookings.events.send-timeout=PT0.2S"
+})
+@ActiveProfiles("test")
+class BookingEventBroadcasterTest {
+
+    @Autowired
+    private BookingEventBroadcaster broadcaster;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("Events Owner").email("events-owner@email.com").build());
+        booker = userRepository.save(User.builder().name("Events Booker").email("events-booker@email.com").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void approveBooking_ShouldPushNewStatusToBookerAndOwnerAfterCommit() throws Exception {
+        Item item = itemRepository.save(Item.builder().name("Events Item").description("Events Description").available(true).owner(owner).build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto created = bookingService.createBooking(booker.getId(), CreateBookingDto.builder().itemId(item.getId()).start(start).end(start.plusDays(1)).build());
+        RecordingEmitter bookerStream = new RecordingEmitter(null);
+        RecordingEmitter ownerStream = new RecordingEmitter(null);
+        broadcaster.register(booker.getId(), bookerStream);
+        broadcaster.register(owner.getId(), ownerStream);
+
+        bookingService.approveBooking(owner.getId(), created.getId(), true);
+
+        for (RecordingEmitter stream : List.of(bookerStream, ownerStream)) {
+            BookingDto pushed = stream.events.poll(5, TimeUnit.SECONDS);
+            assertThat(pushed, allOf(hasProperty("id", is(created.getId())), hasProperty("status", is(BookingStatus.APPROVED))));
+            stream.complete();
+        }
+        assertThrows(NotFoundException.class, () -> bookingService.checkEventsSubscriber(owner.getId() + 1000));
+    }
+
+    @Test
+    void publishAfterCommit_ShouldWriteSameFrameToBookerAndOwner() throws Exception {
+        RecordingEmitter bookerStream = new RecordingEmitter(null);
+        RecordingEmitter ownerStream = new RecordingEmitter(null);
+        broadcaster.register(booker.getId(), bookerStream);
+        broadcaster.register(owner.getId(), ownerStream);
+        BookingDto booking = booking(7L);
+        String expected = "event:booking\nid:7:APPROVED\ndata:" + objectMapper.writeValueAsString(booking) + "\n\n";
+        try {
+            for (int i = 0; i < 3; i++) {
+                broadcaster.publishAfterCommit(booking, owner.getId());
+                assertThat(wire(bookerStream.frames.poll(5, TimeUnit.SECONDS)), is(expected));
+                assertThat(wire(ownerStream.frames.poll(5, TimeUnit.SECONDS)), is(expected));
+            }
+        } finally {
+            bookerStream.complete();
+            ownerStream.complete();
+        }
+    }
+
+    @Test
+    void publish_ShouldDropSubscriberWhoseBufferOverflowsAndKeepServingOthers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        int subscribersBefore = broadcaster.subscriberCount();
+        broadcaster.register(booker.getId(), slow);
+        broadcaster.register(booker.getId(), fast);
+        double droppedBefore = meterRegistry.counter("shareit.bookings.events.dropped.subscribers").count();
+        try {
+            for (long id = 1; id <= 5; id++) {
+                broadcaster.publishAfterCommit(booking(id), owner.getId());
+                assertThat(Objects.requireNonNull(fast.events.poll(5, TimeUnit.SECONDS)).getId(), is(id));
+            }
+            assertThat(slow.completion.await(5, TimeUnit.SECONDS), is(true));
+            assertThat(broadcaster.subscriberCount(), is(subscribersBefore + 1));
+            assertThat(meterRegistry.counter("shareit.bookings.events.dropped.subscribers").count(), is(droppedBefore + 1));
+        } finally {
+            release.countDown();
+            fast.complete();
+        }
+        assertThat(broadcaster.subscriberCount(), is(subscribersBefore));
+    }
+
+    @Test
+    void publish_ShouldDropSubscriberStuckInSendBeforeItsBufferOverflows() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter stuck = new RecordingEmitter(release);
+        RecordingEmitter fast = new RecordingEmitter(null);
+        int subscribersBefore = broadcaster.subscriberCount();
+        broadcaster.register(booker.getId(), stuck);
+        broadcaster.register(booker.getId(), fast);
+        double droppedBefore = meterRegistry.counter("shareit.bookings.events.dropped.subscribers").count();
+        try {
+            broadcaster.publishAfterCommit(booking(1L), owner.getId());
+
+            assertThat(Objects.requireNonNull(fast.events.poll(5, TimeUnit.SECONDS)).getId(), is(1L));
+            assertThat(stuck.completion.await(5, TimeUnit.SECONDS), is(true));
+            assertThat(broadcaster.subscriberCount(), is(subscribersBefore + 1));
+            assertThat(meterRegistry.counter("shareit.bookings.events.dropped.subscribers").count(), is(droppedBefore + 1));
+        } finally {
+            release.countDown();
+            fast.complete();
+        }
+        assertThat(broadcaster.subscriberCount(), is(subscribersBefore));
+    }
+
+    /**
+     * Текст события в том виде, в каком его пишет SseEmitter: строки как есть, данные - через Jackson.
+     */
+    private String wire(Set<ResponseBodyEmitter.DataWithMediaType> frame) throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (ResponseBodyEmitter.DataWithMediaType part : Objects.requireNonNull(frame)) {
+            text.append(part.getData() instanceof String data ? data : objectMapper.writeValueAsString(part.getData()));
+        }
+        return text.toString();
+    }
+
+    private BookingDto booking(long id) {
+        return BookingDto.builder().id(id).status(BookingStatus.APPROVED).booker(BookerDto.builder().id(booker.getId()).build()).build();
+    }
+
+    /**
+     * Эмиттер вне MVC: запоминает отправленные бронирования, а при заданной защёлке висит на отправке, как медленный клиент.
+     * Без обработчика MVC complete() сам не вызывает onCompletion, поэтому колбэк вызывается здесь.
+     */
+    private static class RecordingEmitter extends SseEmitter {
+        private final BlockingQueue<BookingDto> events = new LinkedBlockingQueue<>();
+        private final BlockingQueue<Set<DataWithMediaType>> frames = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+        private final CountDownLatch completion = new CountDownLatch(1);
+        private volatile Runnable completionCallback;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> frame) throws IOException {
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            frame.stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(BookingDto.class::isInstance)
+                    .forEach(data -> events.add((BookingDto) data));
+            if (frame.stream().anyMatch(part -> part.getData() instanceof BookingDto)) {
+                frames.add(frame);
+            }
+        }
+
+        @Override
+        public synchronized void onCompletion(Runnable callback) {
+            completionCallback = callback;
+            super.onCompletion(callback);
+        }
+
+        @Override
+        public synchronized void complete() {
+            super.complete();
+            completion.countDown();
+            if (completionCallback != null) {
+                completionCallback.run();
+            }
+        }
+    }
+}
+// CHECKSTYLE:ON
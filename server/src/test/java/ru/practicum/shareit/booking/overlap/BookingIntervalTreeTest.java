@@ -0,0 +1,120 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.booking.overlap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class BookingIntervalTreeTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void findOverlapping_WithTouchingIntervals_ShouldNotReportConflict() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        tree.put(1L, BASE, BASE.plusDays(2));
+
+        assertThat(tree.findOverlapping(BASE.plusDays(2), BASE.plusDays(3)), is(Optional.empty()));
+        assertThat(tree.findOverlapping(BASE.minusDays(1), BASE), is(Optional.empty()));
+        assertThat(tree.findOverlapping(BASE.plusDays(1), BASE.plusDays(3)), is(Optional.of(1L)));
+    }
+
+    @Test
+    void findOverlapping_WithNestedLongInterval_ShouldFindItThroughMaxEnd() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        tree.put(1L, BASE, BASE.plusDays(30));
+        for (long i = 2; i < 20; i++) {
+            tree.put(i, BASE.plusDays(i), BASE.plusDays(i).plusHours(1));
+        }
+
+        assertThat(tree.findOverlapping(BASE.plusDays(25), BASE.plusDays(26)), is(Optional.of(1L)));
+    }
+
+    @Test
+    void remove_ShouldFreeInterval() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        tree.put(1L, BASE, BASE.plusDays(2));
+        tree.put(2L, BASE.plusDays(5), BASE.plusDays(6));
+
+        assertThat(tree.remove(1L), is(true));
+        assertThat(tree.remove(1L), is(false));
+        assertThat(tree.size(), is(1));
+        assertThat(tree.findOverlapping(BASE, BASE.plusDays(1)), is(Optional.empty()));
+    }
+
+    @Test
+    void removeEndedBy_ShouldDropOnlyFinishedIntervals() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        for (long i = 0; i < 20; i++) {
+            tree.put(i, BASE.plusDays(i), BASE.plusDays(i).plusHours(1));
+        }
+        tree.put(100L, BASE, BASE.plusDays(30));
+
+        assertThat(tree.removeEndedBy(BASE.plusDays(10).plusHours(1)), is(11));
+        assertThat(tree.size(), is(10));
+        assertThat(tree.findOverlapping(BASE.plusDays(5), BASE.plusDays(5).plusHours(1)), is(Optional.of(100L)));
+        assertThat(tree.remove(100L), is(true));
+        assertThat(tree.findOverlapping(BASE, BASE.plusDays(11)), is(Optional.empty()));
+        assertThat(tree.findOverlapping(BASE.plusDays(11), BASE.plusDays(12)), is(Optional.of(11L)));
+    }
+
+    @Test
+    void findOverlapping_WithRandomIntervals_ShouldMatchBruteForce() {
+        Random random = new Random(42);
+        BookingIntervalTree tree = new BookingIntervalTree();
+        List<long[]> intervals = new ArrayList<>();
+        for (long id = 0; id < 2_000; id++) {
+            long start = random.nextInt(100_000);
+            long end = start + 1 + random.nextInt(200);
+            tree.put(id, BASE.plusMinutes(start), BASE.plusMinutes(end));
+            intervals.add(new long[]{id, start, end});
+        }
+        for (int i = 0; i < 500; i++) {
+            long[] removed = intervals.remove(random.nextInt(intervals.size()));
+            tree.remove(removed[0]);
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            long start = random.nextInt(100_000);
+            long end = start + 1 + random.nextInt(50);
+            boolean expected = intervals.stream().anyMatch(interval -> interval[1] < end && interval[2] > start);
+            Optional<Long> found = tree.findOverlapping(BASE.plusMinutes(start), BASE.plusMinutes(end));
+            assertThat(found.isPresent(), is(expected));
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+    void findOverlapping_WithTensOfThousandsOfBookings_ShouldStayFast() {
+        int bookings = 50_000;
+        BookingIntervalTree tree = new BookingIntervalTree();
+        for (long id = 0; id < bookings; id++) {
+            tree.put(id, BASE.plusHours(id * 2), BASE.plusHours(id * 2 + 1));
+        }
+
+        int checks = 100_000;
+        long conflicts = 0;
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < checks; i++) {
+            long hour = (i * 7L) % (bookings * 2L);
+            if (tree.findOverlapping(BASE.plusHours(hour), BASE.plusHours(hour).plusMinutes(30)).isPresent()) {
+                conflicts++;
+            }
+        }
+        long nanosPerCheck = (System.nanoTime() - startedAt) / checks;
+        System.out.printf("Проверка пересечения при %d бронированиях: %d нс/операция%n", bookings, nanosPerCheck);
+
+        assertThat(tree.size(), is(bookings));
+        assertThat(conflicts, greaterThan(0L));
+        assertThat(nanosPerCheck, lessThan(100_000L));
+    }
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,81 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.booking.overlap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingOverlapIndexTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @InjectMocks
+    private BookingOverlapIndex overlapIndex;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Test
+    void findConflict_WhenEvictedDuringLoad_ShouldReloadInsteadOfCachingStaleTree() {
+        when(bookingRepository.findIntervalsByItemIdAndStatusIn(eq(1L), any()))
+                .thenAnswer(invocation -> {
+                    // бронирование удаляется и вытесняется, пока первая загрузка ещё идёт
+                    overlapIndex.evictItems(List.of(1L));
+                    return List.of(new BookingInterval(10L, BASE, BASE.plusDays(1)));
+                })
+                .thenReturn(List.of());
+
+        assertThat(overlapIndex.findConflict(1L, BASE, BASE.plusHours(1)), is(Optional.empty()));
+        assertThat(overlapIndex.findConflict(1L, BASE, BASE.plusHours(1)), is(Optional.empty()));
+        verify(bookingRepository, times(2)).findIntervalsByItemIdAndStatusIn(eq(1L), any());
+    }
+
+    @Test
+    void findConflict_WithoutConflict_ShouldLoadTreeOnce() {
+        when(bookingRepository.findIntervalsByItemIdAndStatusIn(eq(1L), any()))
+                .thenReturn(List.of(new BookingInterval(10L, BASE, BASE.plusDays(1))));
+
+        assertThat(overlapIndex.findConflict(1L, BASE.plusDays(1), BASE.plusDays(2)), is(Optional.empty()));
+        assertThat(overlapIndex.findConflict(1L, BASE.minusDays(1), BASE), is(Optional.empty()));
+        verify(bookingRepository, times(1)).findIntervalsByItemIdAndStatusIn(eq(1L), any());
+    }
+
+    @Test
+    void findConflict_WhenCachedTreeMissedCancellationOnOtherInstance_ShouldRecheckDatabase() {
+        when(bookingRepository.findIntervalsByItemIdAndStatusIn(eq(1L), any()))
+                .thenReturn(List.of(new BookingInterval(10L, BASE, BASE.plusDays(1))))
+                .thenReturn(List.of());
+
+        assertThat(overlapIndex.findConflict(1L, BASE.plusDays(1), BASE.plusDays(2)), is(Optional.empty()));
+        assertThat(overlapIndex.findConflict(1L, BASE, BASE.plusHours(1)), is(Optional.empty()));
+        assertThat(overlapIndex.findConflict(1L, BASE, BASE.plusHours(1)), is(Optional.empty()));
+        verify(bookingRepository, times(2)).findIntervalsByItemIdAndStatusIn(eq(1L), any());
+    }
+
+    @Test
+    void findConflict_WhenConflictIsConfirmedByDatabase_ShouldReportIt() {
+        when(bookingRepository.findIntervalsByItemIdAndStatusIn(eq(1L), any()))
+                .thenReturn(List.of(new BookingInterval(10L, BASE, BASE.plusDays(1))));
+
+        assertThat(overlapIndex.findConflict(1L, BASE, BASE.plusHours(1)), is(Optional.of(10L)));
+        assertThat(overlapIndex.findConflict(1L, BASE, BASE.plusHours(1)), is(Optional.of(10L)));
+        verify(bookingRepository, times(2)).findIntervalsByItemIdAndStatusIn(eq(1L), any());
+    }
+}
+// CHECKSTYLE:ON
@@ -20,6 +20,7 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -70,7 +71,7 @@ class ItemControllerIntegrationTest {
     void findAllItems_ShouldReturnUserItems() throws Exception {
         Item secondItem = itemRepository.save(Item.builder().name("Second Item").description("Second Description").available(true).owner(owner).build());
 
-        mockMvc.perform(get("/items").header("X-Sharer-User-Id", owner.getId())).andExpect(status().isOk()).andExpect(jsonPath("$").isArray()).andExpect(jsonPath("$.length()").value(2)).andExpect(jsonPath("$[0].name").value("Test Item")).andExpect(jsonPath("$[1].name").value("Second Item"));
+        mockMvc.perform(get("/items").header("X-Sharer-User-Id", owner.getId())).andExpect(status().isOk()).andExpect(jsonPath("$").isArray()).andExpect(jsonPath("$.length()").value(2)).andExpect(jsonPath("$[0].name").value("Test Item")).andExpect(jsonPath("$[1].name").value("Second Item")).andExpect(header().doesNotExist("Cache-Control")).andExpect(header().doesNotExist("ETag"));
     }
 
     @Test
@@ -79,7 +80,7 @@ class ItemControllerIntegrationTest {
 
         Booking futureBooking = bookingRepository.save(Booking.builder().startDate(LocalDateTime.now().plusDays(1)).endDate(LocalDateTime.now().plusDays(2)).item(item).booker(booker).status(BookingStatus.APPROVED).build());
 
-        mockMvc.perform(get("/items/{itemId}", item.getId()).header("X-Sharer-User-Id", owner.getId())).andExpect(status().isOk()).andExpect(jsonPath("$.id").value(item.getId())).andExpect(jsonPath("$.name").value("Test Item")).andExpect(jsonPath("$.lastBooking").exists()).andExpect(jsonPath("$.nextBooking").exists());
+        mockMvc.perform(get("/items/{itemId}", item.getId()).header("X-Sharer-User-Id", owner.getId())).andExpect(status().isOk()).andExpect(jsonPath("$.id").value(item.getId())).andExpect(jsonPath("$.name").value("Test Item")).andExpect(jsonPath("$.lastBooking").exists()).andExpect(jsonPath("$.nextBooking").exists()).andExpect(header().string("Cache-Control", "max-age=10")).andExpect(header().exists("ETag"));
     }
 
     @Test
@@ -103,7 +104,7 @@ class ItemControllerIntegrationTest {
     void searchItem_WithMatchingText_ShouldReturnItems() throws Exception {
         String searchText = "test";
 
-        mockMvc.perform(get("/items/search").param("text", searchText)).andExpect(status().isOk()).andExpect(jsonPath("$").isArray()).andExpect(jsonPath("$.length()").value(1)).andExpect(jsonPath("$[0].name").value("Test Item"));
+        mockMvc.perform(get("/items/search").param("text", searchText)).andExpect(status().isOk()).andExpect(jsonPath("$").isArray()).andExpect(jsonPath("$.length()").value(1)).andExpect(jsonPath("$[0].name").value("Test Item")).andExpect(header().doesNotExist("Cache-Control")).andExpect(header().doesNotExist("ETag"));
     }
 
     @Test
@@ -0,0 +1,127 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.item;
+
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.shareit.StatementCountTestBase;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemDtoWithMultipleBookings;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.summary.ItemBookingSummary;
+import ru.practicum.shareit.item.summary.ItemBookingSummaryRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Сводка item_booking_summary пересчитывается по коммиту, поэтому бронирования сохраняются до замера, а не внутри него.
+ */
+class ItemDetailsStatementCountTest extends StatementCountTestBase {
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    private User owner;
+    private Item item;
+    private Booking last;
+    private Booking next;
+    private Booking waiting;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        owner = userRepository.save(new User(null, "Owner", "owner@email.com"));
+        User booker = userRepository.save(new User(null, "Booker", "booker@email.com"));
+        item = itemRepository.save(Item.builder().name("Дрель").description("Ударная").available(true).owner(owner).build());
+        bookingRepository.save(Booking.builder().startDate(now.minusDays(6)).endDate(now.minusDays(5)).item(item).booker(booker).status(BookingStatus.APPROVED).build());
+        last = bookingRepository.save(Booking.builder().startDate(now.minusDays(3)).endDate(now.minusDays(2)).item(item).booker(booker).status(BookingStatus.APPROVED).build());
+        next = bookingRepository.save(Booking.builder().startDate(now.plusDays(2)).endDate(now.plusDays(3)).item(item).booker(booker).status(BookingStatus.APPROVED).build());
+        waiting = bookingRepository.save(Booking.builder().startDate(now.plusDays(1)).endDate(now.plusDays(2)).item(item).booker(booker).status(BookingStatus.WAITING).build());
+        for (int i = 0; i < 3; i++) {
+            commentRepository.save(Comment.builder().text("Комментарий " + i).item(item).author(booker).created(now.minusDays(1).plusMinutes(i)).build());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        summaryRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findItemById_ForOwner_ShouldUseTwoStatements() {
+        Statistics statistics = startCounting();
+
+        ItemDtoWithMultipleBookings result = itemService.findItemById(owner.getId(), item.getId());
+
+        assertThat(statistics.getPrepareStatementCount(), is(2L));
+        assertThat(statistics.getEntityLoadCount(), is(0L));
+        assertThat(result.getLastBooking().getStart(), is(last.getStartDate()));
+        assertThat(result.getNextBooking().getStart(), is(next.getStartDate()));
+        assertThat(result.getComments(), hasSize(3));
+        assertThat(summaryRepository.findById(item.getId()).orElseThrow().getValidUntil(), is(next.getStartDate()));
+        assertThat(result.getComments().getFirst(), allOf(hasProperty("text", is("Комментарий 0")), hasProperty("authorName", is("Booker"))));
+    }
+
+    @Test
+    void findItemById_ForOtherUser_ShouldHideBookings() {
+        Statistics statistics = startCounting();
+
+        ItemDtoWithMultipleBookings result = itemService.findItemById(owner.getId() + 1000, item.getId());
+
+        assertThat(statistics.getPrepareStatementCount(), is(2L));
+        assertThat(result.getLastBooking(), nullValue());
+        assertThat(result.getNextBooking(), nullValue());
+        assertThat(result.getComments(), hasSize(3));
+    }
+
+    @Test
+    void approveBooking_ShouldRefreshSummaryOnCommit() {
+        bookingService.approveBooking(owner.getId(), waiting.getId(), true);
+
+        ItemBookingSummary summary = summaryRepository.findById(item.getId()).orElseThrow();
+        assertThat(summary.getLastBookingId(), is(last.getId()));
+        assertThat(summary.getNextBookingId(), is(waiting.getId()));
+        assertThat(summary.getValidUntil(), is(waiting.getStartDate()));
+
+        Statistics statistics = startCounting();
+        ItemDtoWithMultipleBookings result = itemService.findItemById(owner.getId(), item.getId());
+
+        assertThat(statistics.getPrepareStatementCount(), is(2L));
+        assertThat(result.getNextBooking().getStart(), is(waiting.getStartDate()));
+    }
+}
+// CHECKSTYLE:ON
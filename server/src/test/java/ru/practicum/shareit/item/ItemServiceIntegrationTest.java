@@ -20,6 +20,7 @@ import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Collection;
 import java.util.List;
 
@@ -105,23 +106,33 @@ class ItemServiceIntegrationTest {
     }
 
     @Test
-    void findAllUsersItems_WhenItemHasBookingAndComments_ShouldReturnWithDatesAndComments() {
-        Booking booking = bookingRepository.save(Booking.builder().startDate(LocalDateTime.now().minusDays(2)).endDate(LocalDateTime.now().plusDays(1)).item(item).booker(booker).status(BookingStatus.APPROVED).build());
-
-        Comment comment = commentRepository.save(Comment.builder().text("Test comment").item(item).author(booker).created(LocalDateTime.now()).build());
-
-        Collection<ItemDto> result = itemService.findAllUsersItems(owner.getId());
-
-        assertThat(result, hasSize(1));
-        ItemDto itemDto = result.iterator().next();
-
-        assertThat(itemDto, instanceOf(ItemDtoWithDatesAndComments.class));
-        ItemDtoWithDatesAndComments dtoWithDates = (ItemDtoWithDatesAndComments) itemDto;
-
-        assertThat(dtoWithDates.getStart(), notNullValue());
-        assertThat(dtoWithDates.getEnd(), notNullValue());
-        assertThat(dtoWithDates.getComments(), hasSize(1));
-        assertThat(dtoWithDates.getComments().getFirst(), hasProperty("text", is("Test comment")));
+    void findAllUsersItems_WhenItemHasBookingsAndComments_ShouldReturnLastNextAndComments() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        bookingRepository.save(Booking.builder().startDate(now.minusDays(10)).endDate(now.minusDays(9)).item(item).booker(booker).status(BookingStatus.APPROVED).build());
+        Booking last = bookingRepository.save(Booking.builder().startDate(now.minusDays(3)).endDate(now.minusDays(2)).item(item).booker(booker).status(BookingStatus.APPROVED).build());
+        bookingRepository.save(Booking.builder().startDate(now.minusDays(1)).endDate(now.plusDays(1)).item(item).booker(booker).status(BookingStatus.APPROVED).build());
+        Booking next = bookingRepository.save(Booking.builder().startDate(now.plusDays(2)).endDate(now.plusDays(3)).item(item).booker(booker).status(BookingStatus.APPROVED).build());
+        bookingRepository.save(Booking.builder().startDate(now.plusDays(4)).endDate(now.plusDays(5)).item(item).booker(booker).status(BookingStatus.APPROVED).build());
+        bookingRepository.save(Booking.builder().startDate(now.plusHours(30)).endDate(now.plusHours(40)).item(item).booker(booker).status(BookingStatus.REJECTED).build());
+        Item withoutBookings = itemRepository.save(Item.builder().name("Second Item").description("No bookings").available(true).owner(owner).build());
+
+        commentRepository.save(Comment.builder().text("Test comment").item(item).author(booker).created(LocalDateTime.now()).build());
+
+        List<ItemDtoWithMultipleBookings> result = List.copyOf(itemService.findAllUsersItems(owner.getId()));
+
+        assertThat(result, hasSize(2));
+        ItemDtoWithMultipleBookings withBookings = result.get(0);
+        assertThat(withBookings.getId(), is(item.getId()));
+        assertThat(withBookings.getLastBooking().getStart(), is(last.getStartDate()));
+        assertThat(withBookings.getNextBooking().getStart(), is(next.getStartDate()));
+        assertThat(withBookings.getComments(), hasSize(1));
+        assertThat(withBookings.getComments().getFirst(), allOf(hasProperty("text", is("Test comment")), hasProperty("authorName", is("Booker"))));
+
+        ItemDtoWithMultipleBookings empty = result.get(1);
+        assertThat(empty.getId(), is(withoutBookings.getId()));
+        assertThat(empty.getLastBooking(), nullValue());
+        assertThat(empty.getNextBooking(), nullValue());
+        assertThat(empty.getComments(), empty());
     }
 
     @Test
@@ -162,20 +173,6 @@ class ItemServiceIntegrationTest {
         assertThat(result, allOf(hasProperty("name", is("Fully Updated")), hasProperty("description", is("Fully Updated Description")), hasProperty("available", is(false))));
     }
 
-    @Test
-    void itemToDtoWithDatesAndComments_ShouldMapCorrectly() {
-        List<Comment> comments = List.of(Comment.builder().id(1L).text("Comment 1").author(booker).created(LocalDateTime.now()).build());
-
-        LocalDateTime start = LocalDateTime.now().minusDays(1);
-        LocalDateTime end = LocalDateTime.now().plusDays(1);
-        Long requestId = 999L;
-
-        ItemDtoWithDatesAndComments result = ItemMapper.itemToDtoWithDatesAndComments(item, start, end, comments, requestId);
-
-        assertThat(result, allOf(hasProperty("id", is(item.getId())), hasProperty("name", is(item.getName())), hasProperty("start", is(start)), hasProperty("end", is(end)), hasProperty("comments", hasSize(1)), hasProperty("requestId", is(requestId))));
-
-    }
-
     @Test
     void searchItem_WhenItemHasRequest_ShouldIncludeRequestId() {
         ItemRequest request = itemRequestRepository.save(ItemRequest.builder().description("Test request").requester(booker).created(LocalDateTime.now()).build());
@@ -190,5 +187,44 @@ class ItemServiceIntegrationTest {
     }
 
 
+    @Test
+    void searchItem_ShouldRankNameMatchesFirstAndSkipUnavailable() {
+        Item inDescription = itemRepository.save(Item.builder().name("Набор ключей").description("Подходит к дрели").available(true).owner(owner).build());
+        Item inName = itemRepository.save(Item.builder().name("Дрель аккумуляторная").description("Два аккумулятора").available(true).owner(owner).build());
+        itemRepository.save(Item.builder().name("Дрель ударная").description("Сломана").available(false).owner(owner).build());
+
+        List<UpdateItemDto> result = List.copyOf(itemService.searchItem("дрел"));
+
+        assertThat(result, hasSize(2));
+        assertThat(result.get(0).getId(), is(inName.getId()));
+        assertThat(result.get(1).getId(), is(inDescription.getId()));
+    }
+
+    @Test
+    void searchItem_WithPaging_ShouldReturnRequestedWindow() {
+        for (int i = 0; i < 5; i++) {
+            itemRepository.save(Item.builder().name("Палатка " + i).description("Туристическая").available(true).owner(owner).build());
+        }
+
+        Collection<UpdateItemDto> firstPage = itemService.searchItem("палатка", 0, 2);
+        Collection<UpdateItemDto> lastPage = itemService.searchItem("палатка", 4, 2);
+
+        assertThat(firstPage, hasSize(2));
+        assertThat(lastPage, hasSize(1));
+    }
+
+    @Test
+    void searchItem_AfterUpdateAndDelete_ShouldReflectChanges() {
+        UpdateItemDto update = new UpdateItemDto();
+        update.setName("Велосипед");
+        itemService.updateItem(owner.getId(), item.getId(), update);
+
+        assertThat(itemService.searchItem("test"), hasSize(1));
+        assertThat(itemService.searchItem("велосипед"), hasSize(1));
+
+        itemService.deleteItem(item.getId());
+
+        assertThat(itemService.searchItem("велосипед"), empty());
+    }
 }
 // CHECKSTYLE:ON
\ No newline at end of file
@@ -0,0 +1,90 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class InMemoryItemSearchEngineTest {
+
+    private final InMemoryItemSearchEngine engine = new InMemoryItemSearchEngine(null);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(engine);
+    }
+
+    @Test
+    void index_InTransaction_ShouldBeVisibleToItOnlyUntilCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        engine.index(item(1L, "Дрель"));
+
+        assertThat(engine.search("дрель", 0, 10), contains(1L));
+        assertThat(searchFromOtherThread("дрель"), empty());
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(engine.search("дрель", 0, 10), contains(1L));
+        assertThat(searchFromOtherThread("дрель"), contains(1L));
+        assertThat(engine.size(), is(1));
+    }
+
+    @Test
+    void changes_OnRollback_ShouldBeDiscarded() {
+        engine.index(item(1L, "Дрель"));
+        TransactionSynchronizationManager.initSynchronization();
+        engine.index(item(1L, "Палатка"));
+        engine.index(item(2L, "Дрель ударная"));
+
+        assertThat(engine.search("дрель", 0, 10), contains(2L));
+        assertThat(searchFromOtherThread("дрель"), contains(1L));
+
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(engine.search("дрель", 0, 10), contains(1L));
+        assertThat(engine.search("палатка", 0, 10), empty());
+    }
+
+    @Test
+    void remove_InTransaction_ShouldHideItemOnlyFromIt() {
+        engine.index(item(1L, "Дрель"));
+        TransactionSynchronizationManager.initSynchronization();
+        engine.remove(1L);
+
+        assertThat(engine.search("дрель", 0, 10), empty());
+        assertThat(searchFromOtherThread("дрель"), contains(1L));
+
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(searchFromOtherThread("дрель"), empty());
+    }
+
+    private void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+
+    private List<Long> searchFromOtherThread(String text) {
+        return CompletableFuture.supplyAsync(() -> engine.search(text, 0, 10)).join();
+    }
+
+    private static Item item(Long id, String name) {
+        return Item.builder().id(id).name(name).description("").available(true).build();
+    }
+}
+// CHECKSTYLE:ON
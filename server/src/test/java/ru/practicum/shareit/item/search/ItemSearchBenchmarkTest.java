@@ -0,0 +1,171 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.item.search;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Сравнение прежнего LIKE-поиска с режимами pg_trgm на 1 000 000 вещей.
+ * Запуск: mvn test -Dtest=ItemSearchBenchmarkTest -Dshareit.benchmark=true (нужен Docker).
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+class ItemSearchBenchmarkTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final int ITEMS = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP = 3;
+    private static final int ITERATIONS = 10;
+    private static final List<String> TERMS = List.of("дрел", "аккумулятор", "5f3a1", "такого нет");
+
+    private static final String LEGACY_LIKE = """
+            SELECT i.id, i.available FROM items i WHERE
+            LOWER(i.name) LIKE LOWER(CONCAT('%', ?, '%')) OR
+            LOWER(i.description) LIKE LOWER(CONCAT('%', ?, '%'))""";
+    private static final String SUBSTRING = """
+            SELECT i.id FROM items i
+            WHERE i.available AND (lower(i.name) LIKE ? OR lower(i.description) LIKE ?)
+            ORDER BY i.id
+            LIMIT ? OFFSET 0""";
+    private static final String SIMILARITY = """
+            SELECT i.id FROM items i
+            WHERE i.available AND (? <% lower(i.name) OR ? <% lower(i.description))
+            ORDER BY greatest(word_similarity(?, lower(i.name)), word_similarity(?, coalesce(lower(i.description), ''))) DESC, i.id
+            LIMIT ? OFFSET 0""";
+
+    @Test
+    void compareLegacyLikeWithTrigramSearch() throws SQLException {
+        migrate("3");
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (name, email) VALUES ('owner', 'owner@mail.ru')");
+            statement.execute("""
+                    INSERT INTO items (name, description, available, owner_id)
+                    SELECT (ARRAY['Дрель', 'Перфоратор', 'Палатка', 'Велосипед', 'Шуруповёрт',
+                                  'Лестница', 'Самокат', 'Спальник', 'Лодка', 'Болгарка'])[1 + g % 10]
+                               || ' ' || (ARRAY['аккумуляторная', 'ударная', 'туристическая', 'складная',
+                                                'детская', 'профессиональная', 'бытовая'])[1 + (g / 10) % 7]
+                               || ' ' || g,
+                           'Состояние ' || (ARRAY['отличное', 'хорошее', 'рабочее'])[1 + g % 3]
+                               || ', инвентарный номер ' || md5(g::text),
+                           g % 4 <> 0, 1
+                    FROM generate_series(1, ?) g""".replace("?", String.valueOf(ITEMS)));
+            statement.execute("ANALYZE items");
+        }
+
+        List<String> report = new ArrayList<>();
+        try (Connection connection = connect()) {
+            for (String term : TERMS) {
+                report.add(measure("LIKE без индекса", term, () -> legacy(connection, term)));
+            }
+        }
+
+        migrate(null);
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE items");
+            for (String term : TERMS) {
+                String normalized = term.toLowerCase(Locale.ROOT);
+                List<Long> legacyPage = legacy(connection, term).stream().limit(PAGE_SIZE).toList();
+                assertThat(term, substring(connection, normalized), is(legacyPage));
+
+                report.add(measure("LIKE + pg_trgm", term, () -> legacy(connection, term)));
+                report.add(measure("SUBSTRING", term, () -> substring(connection, normalized)));
+                report.add(measure("SIMILARITY", term, () -> similarity(connection, normalized)));
+            }
+        }
+        report.forEach(System.out::println);
+    }
+
+    private static List<Long> legacy(Connection connection, String term) throws SQLException {
+        // как прежний searchItem: все совпадения из БД, фильтр available и сортировка уже в Java
+        List<Long> ids = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(LEGACY_LIKE)) {
+            statement.setString(1, term);
+            statement.setString(2, term);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    if (resultSet.getBoolean(2)) {
+                        ids.add(resultSet.getLong(1));
+                    }
+                }
+            }
+        }
+        ids.sort(null);
+        return ids;
+    }
+
+    private static List<Long> substring(Connection connection, String term) throws SQLException {
+        String pattern = TrigramItemSearchEngine.toContainsPattern(term);
+        return ids(connection, SUBSTRING, pattern, pattern, PAGE_SIZE);
+    }
+
+    private static List<Long> similarity(Connection connection, String term) throws SQLException {
+        return ids(connection, SIMILARITY, term, term, term, term, PAGE_SIZE);
+    }
+
+    private static List<Long> ids(Connection connection, String sql, Object... params) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setObject(i + 1, params[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static String measure(String name, String term, SearchCall call) throws SQLException {
+        for (int i = 0; i < WARMUP; i++) {
+            call.run();
+        }
+        int found = 0;
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            found = call.run().size();
+        }
+        double avgMillis = (System.nanoTime() - started) / 1_000_000.0 / ITERATIONS;
+        return String.format(Locale.ROOT, "%-18s %-14s найдено: %7d, среднее: %9.2f мс", name, "'" + term + "'", found, avgMillis);
+    }
+
+    private static void migrate(String target) {
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .target(target == null ? "latest" : target)
+                .load()
+                .migrate();
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+
+    @FunctionalInterface
+    private interface SearchCall {
+        List<Long> run() throws SQLException;
+    }
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,119 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.UpdateItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ItemSearchCacheTest {
+
+    private final ItemSearchEngine engine = new ItemSearchEngine() {
+        @Override
+        public List<Long> search(String text, int from, int size) {
+            return List.of();
+        }
+
+        @Override
+        public void index(Item item) {
+        }
+
+        @Override
+        public void remove(Long itemId) {
+        }
+
+        @Override
+        public void removeAll(Collection<Long> itemIds) {
+        }
+    };
+
+    private SimpleMeterRegistry meterRegistry;
+    private ItemSearchCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemSearchCache(engine, 1_000, Duration.ofMinutes(10), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_WithRepeatedQuery_ShouldLoadOnceAndReportHitRatio() {
+        cache.get("дрель", 0, 10, () -> load("Дрель"));
+        cache.get("дрель", 0, 10, () -> load("Дрель"));
+        cache.get("дрель", 10, 10, () -> load("Дрель"));
+
+        assertThat(loads.get(), is(2));
+        assertThat(meterRegistry.get("shareit.items.search.cache.hit.ratio").gauge().value(), closeTo(1.0 / 3, 0.001));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "itemSearch").tag("result", "hit").functionCounter().count(), is(1.0));
+    }
+
+    @Test
+    void invalidateMatching_ShouldDropOnlyQueriesMatchingItemText() {
+        cache.get("дрел", 0, 10, () -> load("Дрель"));
+        cache.get("палатка", 0, 10, () -> load("Палатка"));
+
+        cache.invalidateMatching("Дрель ударная\nМощная");
+        cache.get("дрел", 0, 10, () -> load("Дрель"));
+        cache.get("палатка", 0, 10, () -> load("Палатка"));
+
+        assertThat(loads.get(), is(3));
+    }
+
+    @Test
+    void invalidateMatching_ShouldDropEveryPageOfMatchingQuery() {
+        cache.get("дрел", 0, 10, () -> load("Дрель"));
+        cache.get("дрел", 10, 10, () -> load("Дрель"));
+        cache.get("палатка", 0, 10, () -> load("Палатка"));
+
+        cache.invalidateMatching("Дрель");
+
+        assertThat(cache.size(), is(1L));
+        assertThat(cache.indexedTextCount(), is(1));
+    }
+
+    @Test
+    void get_WhenEntriesAreEvictedBySize_ShouldForgetTheirQueries() {
+        ItemSearchCache small = new ItemSearchCache(engine, 4, Duration.ofMinutes(10), new SimpleMeterRegistry());
+        for (int i = 0; i < 20; i++) {
+            String text = "запрос " + i;
+            small.get(text, 0, 10, () -> load(text));
+        }
+
+        small.cleanUp();
+
+        assertThat((long) small.indexedTextCount(), is(small.size()));
+    }
+
+    @Test
+    void get_WhenInvalidatedDuringLoad_ShouldNotCacheStaleResult() {
+        cache.get("дрель", 0, 10, () -> {
+            cache.invalidateMatching("Дрель");
+            return load("Дрель");
+        });
+        cache.get("дрель", 0, 10, () -> load("Дрель"));
+
+        assertThat(loads.get(), is(2));
+    }
+
+    @Test
+    void normalize_ShouldCollapseWhitespaceAndCase() {
+        assertThat(ItemSearchCache.normalize("  Дрель   УДАРНАЯ "), is("дрель ударная"));
+    }
+
+    private List<UpdateItemDto> load(String name) {
+        loads.incrementAndGet();
+        return List.of(UpdateItemDto.builder().id((long) loads.get()).name(name).available(true).build());
+    }
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,43 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Ищет по сгенерированной колонке items.search_vector из V3: название весит A, описание - B.
+ */
+class PostgresItemSearchEngineTest extends PostgresSearchTestBase {
+
+    private PostgresItemSearchEngine engine;
+    private Long inDescription;
+    private Long inName;
+    private Long bothWords;
+    private Long prefixInDescription;
+
+    @BeforeEach
+    void setUp() {
+        engine = new PostgresItemSearchEngine(itemRepository);
+        inDescription = item("Tool kit", "Drill included", true);
+        inName = item("Drill", "Cordless", true);
+        bothWords = item("Hammer drill", "Heavy", true);
+        item("Drill", "Broken", false);
+        prefixInDescription = item("Tent", "Drilling rig not included", true);
+    }
+
+    @Test
+    void search_ShouldRankNameMatchesAboveDescriptionMatches() {
+        assertThat(engine.search("drill", 0, 10), contains(inName, bothWords, inDescription, prefixInDescription));
+    }
+
+    @Test
+    void search_ShouldMatchWordPrefixesOfEveryToken() {
+        assertThat(engine.search("Ham-dri", 0, 10), contains(bothWords));
+        assertThat(engine.search("rill", 0, 10), empty());
+        assertThat(engine.search("!!!", 0, 10), empty());
+    }
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,51 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Текст латиницей: lower() и разбиение на триграммы в образе postgres:16-alpine зависят от локали базы.
+ */
+class TrigramItemSearchEngineTest extends PostgresSearchTestBase {
+
+    private Long percent;
+    private Long underscore;
+    private Long drills;
+    private Long drill;
+
+    @BeforeEach
+    void setUp() {
+        percent = item("Sale 100% cotton", "T-shirt", true);
+        item("Sale 1000 pieces", "Puzzle", true);
+        item("Sale 100% wool", "Hidden", false);
+        underscore = item("Cable", "usb_c connector", true);
+        item("Cable", "usbxc connector", true);
+        drills = item("Drills set", "For wood", true);
+        drill = item("Drill", "Cordless", true);
+        item("Grill", "Charcoal", true);
+        item("Drill", "Broken", false);
+    }
+
+    @Test
+    void substring_ShouldMatchPercentAndUnderscoreLiterally() {
+        TrigramItemSearchEngine engine = new TrigramItemSearchEngine(itemRepository, TrigramSearchMode.SUBSTRING);
+
+        assertThat(engine.search("100%", 0, 10), contains(percent));
+        assertThat(engine.search(" B_C ", 0, 10), contains(underscore));
+        assertThat(engine.search("   ", 0, 10), empty());
+    }
+
+    @Test
+    void similarity_ShouldRankCloserMatchesFirst() {
+        TrigramItemSearchEngine engine = new TrigramItemSearchEngine(itemRepository, TrigramSearchMode.SIMILARITY);
+
+        assertThat(engine.search("DRILL", 0, 10), contains(drill, drills));
+        assertThat(engine.search("DRILL", 1, 10), contains(drills));
+        assertThat(engine.mayMatch("drill", "grill"), is(true));
+    }
+}
+// CHECKSTYLE:ON
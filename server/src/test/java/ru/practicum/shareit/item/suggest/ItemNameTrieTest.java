@@ -0,0 +1,132 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.item.suggest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ItemNameTrieTest {
+
+    @Test
+    void suggest_ShouldRankByCountThenAlphabetically() {
+        ItemNameTrie trie = new ItemNameTrie(3);
+        trie.add("дрель ударная", "Дрель ударная");
+        trie.add("дрель аккумуляторная", "Дрель аккумуляторная");
+        trie.add("дрель аккумуляторная", "Дрель аккумуляторная");
+        trie.add("дрезина", "Дрезина");
+        trie.add("доска", "Доска");
+
+        assertThat(trie.suggest("др", 10), contains("Дрель аккумуляторная", "Дрезина", "Дрель ударная"));
+        assertThat(trie.suggest("дрель у", 10), contains("Дрель ударная"));
+        assertThat(trie.suggest("дрель x", 10), empty());
+        assertThat(trie.suggest("д", 1), contains("Дрель аккумуляторная"));
+    }
+
+    @Test
+    void remove_ShouldUpdateTopAndCompactTree() {
+        ItemNameTrie trie = new ItemNameTrie(5);
+        trie.add("палатка", "Палатка");
+        trie.add("палатка двухместная", "Палатка двухместная");
+        int nodesWithBoth = trie.nodeCount();
+
+        assertThat(trie.remove("палатка", "Палатка"), is(true));
+        assertThat(trie.remove("палатка", "Палатка"), is(false));
+
+        assertThat(trie.suggest("пал", 5), contains("Палатка двухместная"));
+        assertThat(trie.nodeCount(), lessThan(nodesWithBoth));
+
+        trie.remove("палатка двухместная", "Палатка двухместная");
+
+        assertThat(trie.suggest("п", 5), empty());
+        assertThat(trie.nodeCount(), is(1));
+        assertThat(trie.labelChars(), is(0L));
+    }
+
+    @Test
+    void remove_ShouldRestoreDisplayNameOfRemainingItems() {
+        ItemNameTrie trie = new ItemNameTrie(5);
+        trie.add("дрель", "Дрель");
+        trie.add("дрель", "ДРЕЛЬ");
+        trie.add("дрель", "ДРЕЛЬ");
+
+        assertThat(trie.suggest("др", 5), contains("ДРЕЛЬ"));
+
+        trie.remove("дрель", "ДРЕЛЬ");
+        trie.remove("дрель", "ДРЕЛЬ");
+
+        assertThat(trie.suggest("др", 5), contains("Дрель"));
+    }
+
+    @Test
+    void suggest_WithRandomOperations_ShouldMatchBruteForce() {
+        Random random = new Random(7);
+        ItemNameTrie trie = new ItemNameTrie(5);
+        Map<String, Integer> counts = new HashMap<>();
+        String[] syllables = {"ка", "ра", "кар", "ар", "а"};
+
+        for (int op = 0; op < 5_000; op++) {
+            StringBuilder name = new StringBuilder();
+            for (int i = 0, length = 1 + random.nextInt(4); i < length; i++) {
+                name.append(syllables[random.nextInt(syllables.length)]);
+            }
+            String key = name.toString();
+            if (random.nextInt(3) > 0) {
+                trie.add(key, key);
+                counts.merge(key, 1, Integer::sum);
+            } else {
+                assertThat(trie.remove(key, key), is(counts.containsKey(key)));
+                counts.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+            }
+            String prefix = key.substring(0, 1 + random.nextInt(key.length()));
+            assertThat(trie.suggest(prefix, 5), is(bruteForce(counts, prefix, 5)));
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+    void suggest_With100kNames_ShouldAnswerWellUnderMillisecond() {
+        ItemNameTrie trie = new ItemNameTrie(10);
+        String[] words = {"дрель", "палатка", "велосипед", "лестница", "самокат", "спальник", "лодка", "болгарка"};
+        for (int i = 0; i < 100_000; i++) {
+            String name = words[i % words.length] + " " + i;
+            trie.add(name, name);
+        }
+        List<String> prefixes = new ArrayList<>();
+        for (String word : words) {
+            prefixes.add(word.substring(0, 1));
+            prefixes.add(word.substring(0, 3));
+            prefixes.add(word + " 4");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            trie.suggest(prefixes.get(i % prefixes.size()), 10);
+        }
+        int iterations = 100_000;
+        long started = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            trie.suggest(prefixes.get(i % prefixes.size()), 10);
+        }
+        long nanosPerOp = (System.nanoTime() - started) / iterations;
+        System.out.printf("ItemNameTrie: %d узлов, suggest: %d нс/операция%n", trie.nodeCount(), nanosPerOp);
+
+        assertThat(nanosPerOp, lessThan(1_000_000L));
+    }
+
+    private static List<String> bruteForce(Map<String, Integer> counts, String prefix, int limit) {
+        return counts.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,162 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.item.summary;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.scheduling.annotation.ScheduledAnnotationBeanPostProcessor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.lock.ItemLockManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Пачка из двух строк при пяти вещах: задание и пересчёт проходят по три пачки.
+ */
+@SpringBootTest(properties = {
+        "shareit.items.booking-summary.batch-size=2",
+        "shareit.items.booking-summary.rebuild=true"
+})
+@ActiveProfiles("test")
+class ItemBookingSummaryJobTest {
+    private static final int ITEMS = 5;
+
+    @Autowired
+    private ItemBookingSummaryJob summaryJob;
+
+    @Autowired
+    private ItemBookingSummaryRebuildRunner rebuildRunner;
+
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemLockManager itemLocks;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Item> items = new ArrayList<>();
+    private final List<Booking> lastBookings = new ArrayList<>();
+    private final List<Booking> nextBookings = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        User owner = userRepository.save(new User(null, "Owner", "owner@email.com"));
+        User booker = userRepository.save(new User(null, "Booker", "booker@email.com"));
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = itemRepository.save(Item.builder().name("Вещь " + i).description("Описание").available(true).owner(owner).build());
+            items.add(item);
+            lastBookings.add(bookingRepository.save(Booking.builder().startDate(now.minusDays(3)).endDate(now.minusDays(2).plusMinutes(i))
+                    .item(item).booker(booker).status(BookingStatus.APPROVED).build()));
+            nextBookings.add(bookingRepository.save(Booking.builder().startDate(now.plusDays(2).plusMinutes(i)).endDate(now.plusDays(3))
+                    .item(item).booker(booker).status(BookingStatus.APPROVED).build()));
+        }
+        itemRepository.save(Item.builder().name("Без бронирований").description("Описание").available(true).owner(owner).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll();
+        summaryRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void rollForward_ShouldRefreshAllExpiredRowsAcrossBatches() {
+        LocalDateTime expired = LocalDateTime.now().minusHours(1).truncatedTo(ChronoUnit.MICROS);
+        items.forEach(item -> summaryRepository.save(ItemBookingSummary.builder().itemId(item.getId()).validUntil(expired).build()));
+
+        summaryJob.rollForward();
+
+        assertSummariesMatchBookings();
+    }
+
+    @Test
+    void rollForward_ShouldWaitForItemLockHeldByBookingTransaction() throws Exception {
+        LocalDateTime expired = LocalDateTime.now().minusHours(1).truncatedTo(ChronoUnit.MICROS);
+        items.forEach(item -> summaryRepository.save(ItemBookingSummary.builder().itemId(item.getId()).validUntil(expired).build()));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> writer = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            itemLocks.lockUntilTransactionEnd(items.getFirst().getId());
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(locked.await(5, TimeUnit.SECONDS), is(true));
+
+        CompletableFuture<Void> job = CompletableFuture.runAsync(summaryJob::rollForward);
+
+        assertThrows(TimeoutException.class, () -> job.get(300, TimeUnit.MILLISECONDS));
+        release.countDown();
+        writer.get(5, TimeUnit.SECONDS);
+        job.get(5, TimeUnit.SECONDS);
+        assertSummariesMatchBookings();
+    }
+
+    @Test
+    void run_ShouldRebuildEveryItemInBatchesSmallerThanItemCount() {
+        summaryRepository.deleteAll();
+
+        rebuildRunner.run();
+
+        assertThat(summaryRepository.count(), is((long) ITEMS));
+        assertSummariesMatchBookings();
+    }
+
+    @Test
+    void schedulingConfig_ShouldEnableSchedulingUnlessDisabled() {
+        ApplicationContextRunner contextRunner = new ApplicationContextRunner().withUserConfiguration(ItemBookingSummarySchedulingConfig.class);
+
+        contextRunner.run(context -> assertThat(context.getBeansOfType(ScheduledAnnotationBeanPostProcessor.class).size(), is(1)));
+        contextRunner.withPropertyValues("shareit.scheduling.enabled=false")
+                .run(context -> assertThat(context.getBeansOfType(ScheduledAnnotationBeanPostProcessor.class).size(), is(0)));
+    }
+
+    private void assertSummariesMatchBookings() {
+        for (int i = 0; i < ITEMS; i++) {
+            ItemBookingSummary summary = summaryRepository.findById(items.get(i).getId()).orElseThrow();
+            assertThat(summary.getLastBookingId(), is(lastBookings.get(i).getId()));
+            assertThat(summary.getNextBookingId(), is(nextBookings.get(i).getId()));
+            assertThat(summary.getValidUntil(), is(nextBookings.get(i).getStartDate()));
+        }
+    }
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,55 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Начиная с JDK 24 synchronized не закрепляет виртуальный поток, поэтому проверка имеет смысл только на JDK 21-23.
+ */
+@SpringBootTest(properties = {"spring.threads.virtual.enabled=true", "shareit.threads.pinning.threshold=PT0.01S"})
+@ActiveProfiles("test")
+class VirtualThreadPinningMonitorTest {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void blockingInsideSynchronized_ShouldBeReportedAsMonitorPinning() throws Exception {
+        assumeTrue(Runtime.version().feature() < 24);
+        Object monitor = new Object();
+
+        Thread.ofVirtual().start(() -> {
+            synchronized (monitor) {
+                try {
+                    Thread.sleep(Duration.ofMillis(100));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }).join();
+
+        // JFR отдаёт события потребителю пачками примерно раз в секунду
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (pinnedCount() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(pinnedCount(), greaterThanOrEqualTo(1.0));
+    }
+
+    private double pinnedCount() {
+        Counter counter = meterRegistry.find("shareit.threads.virtual.pinned").tag("source", "monitor").counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
+// CHECKSTYLE:ON
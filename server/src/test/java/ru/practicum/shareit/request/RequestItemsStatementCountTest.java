@@ -0,0 +1,99 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.request;
+
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.shareit.StatementCountTestBase;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.RequestDto;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Тридцать владельцев на шестьсот ответов: запрос за владельцем на каждую вещь сразу виден в счётчике.
+ * Данные коммитятся в setUp, чтобы владельцы не лежали в контексте персистентности во время замера.
+ */
+class RequestItemsStatementCountTest extends StatementCountTestBase {
+    private static final int OWNERS = 30;
+    private static final int ANSWERS_PER_REQUEST = 300;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User requester;
+    private ItemRequest first;
+    private ItemRequest second;
+
+    @BeforeEach
+    void setUp() {
+        requester = userRepository.save(new User(null, "Requester", "requester@email.com"));
+        List<User> owners = new ArrayList<>();
+        for (int i = 0; i < OWNERS; i++) {
+            owners.add(userRepository.save(new User(null, "Owner " + i, "owner" + i + "@email.com")));
+        }
+        LocalDateTime now = LocalDateTime.now();
+        first = requestRepository.save(ItemRequest.builder().description("Нужна дрель").requester(requester).created(now.minusDays(1)).build());
+        second = requestRepository.save(ItemRequest.builder().description("Нужна палатка").requester(requester).created(now).build());
+        List<Item> answers = new ArrayList<>();
+        for (int i = 0; i < ANSWERS_PER_REQUEST; i++) {
+            User owner = owners.get(i % OWNERS);
+            answers.add(Item.builder().name("Дрель " + i).description("Ответ").available(true).owner(owner).request(first).build());
+            answers.add(Item.builder().name("Палатка " + i).description("Ответ").available(true).owner(owner).request(second).build());
+        }
+        itemRepository.saveAll(answers);
+    }
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void getRequestById_ShouldLoadAnswersWithoutOwners() {
+        Statistics statistics = startCountingWithEmptyCache();
+
+        RequestDto result = requestService.getRequestById(first.getId());
+
+        assertThat(result.getItems(), hasSize(ANSWERS_PER_REQUEST));
+        assertThat(result.getItems(), everyItem(hasProperty("ownerId", notNullValue())));
+        assertThat(statistics.getPrepareStatementCount(), is(2L));
+        assertThat(statistics.getEntityLoadCount(), is(1L));
+    }
+
+    @Test
+    void getUsersRequests_ShouldLoadAnswersOfAllRequestsInOneQuery() {
+        Statistics statistics = startCountingWithEmptyCache();
+
+        List<RequestDto> result = requestService.getUsersRequests(requester.getId());
+
+        assertThat(result, hasSize(2));
+        assertThat(result.get(0).getId(), is(second.getId()));
+        assertThat(result.get(0).getItems(), hasSize(ANSWERS_PER_REQUEST));
+        assertThat(result.get(1).getItems(), hasSize(ANSWERS_PER_REQUEST));
+        assertThat(statistics.getPrepareStatementCount(), is(2L));
+        assertThat(statistics.getEntityLoadCount(), is(2L));
+    }
+}
+// CHECKSTYLE:ON
@@ -11,6 +11,7 @@ import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.CreateRequestDto;
+import ru.practicum.shareit.request.dto.RequestCursorPage;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.dto.ShortItemDtoForRequest;
 import ru.practicum.shareit.request.dto.ShortRequestResponse;
@@ -117,6 +118,25 @@ class RequestServiceImplIntegrationTest {
         assertThat(result.stream().map(ShortRequestResponse::getDescription).collect(Collectors.toList()), containsInAnyOrder("Other user request", "Third user request"));
     }
 
+    @Test
+    void getAllRequestsAfterCursor_ShouldWalkFeedInKeysetOrder() {
+        LocalDateTime created = LocalDateTime.now().minusDays(1);
+        for (int i = 0; i < 5; i++) {
+            // одинаковое время создания: порядок внутри него задаёт id
+            requestRepository.save(ItemRequest.builder().description("Other " + i).requester(otherUser).created(created).build());
+        }
+
+        RequestCursorPage first = requestService.getAllRequestsAfterCursor(user.getId(), null, 2);
+        RequestCursorPage second = requestService.getAllRequestsAfterCursor(user.getId(), first.getNextCursor(), 2);
+        RequestCursorPage last = requestService.getAllRequestsAfterCursor(user.getId(), second.getNextCursor(), 2);
+
+        assertThat(first.getContent().stream().map(ShortRequestResponse::getDescription).toList(), contains("Other 4", "Other 3"));
+        assertThat(second.getContent().stream().map(ShortRequestResponse::getDescription).toList(), contains("Other 2", "Other 1"));
+        assertThat(last.getContent().stream().map(ShortRequestResponse::getDescription).toList(), contains("Other 0"));
+        assertThat(last.getNextCursor(), nullValue());
+        assertThat(last.getContent().get(0).getRequesterId(), is(otherUser.getId()));
+    }
+
     @Test
     void getRequestById_WithItemsFromDifferentOwners_ShouldReturnCorrectOwnerIds() {
         User thirdUser = userRepository.save(User.builder().name("Third User").email("third@email.com").build());
@@ -0,0 +1,94 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.request.feed;
+
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.StatementCountTestBase;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.RequestRepository;
+import ru.practicum.shareit.request.RequestService;
+import ru.practicum.shareit.request.dto.CreateRequestDto;
+import ru.practicum.shareit.request.dto.RequestCursorPage;
+import ru.practicum.shareit.request.dto.ShortRequestResponse;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * Голова ленты на четыре запроса, чтобы собственные запросы читателя могли заполнить её целиком.
+ */
+@SpringBootTest(properties = "shareit.requests.feed.cache.head-size=4")
+class RequestFeedCacheTest extends StatementCountTestBase {
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RequestFeedCache feedCache;
+
+    private User reader;
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        feedCache.invalidate();
+        reader = userRepository.save(new User(null, "Reader", "reader@email.com"));
+        author = userRepository.save(new User(null, "Author", "author@email.com"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void firstPage_ShouldBeServedFromSharedHeadUntilNewRequest() {
+        requestRepository.save(ItemRequest.builder().description("Old").requester(author).created(LocalDateTime.now().minusDays(1)).build());
+        requestService.getAllRequestsAfterCursor(reader.getId(), null, 2);
+        Statistics statistics = startCounting();
+
+        RequestCursorPage cached = requestService.getAllRequestsAfterCursor(reader.getId(), null, 2);
+
+        assertThat(statistics.getPrepareStatementCount(), is(0L));
+        assertThat(cached.getContent(), hasSize(1));
+        assertThat(cached.getNextCursor(), nullValue());
+
+        CreateRequestDto dto = new CreateRequestDto();
+        dto.setDescription("New");
+        requestService.createRequest(author.getId(), dto);
+
+        RequestCursorPage refreshed = requestService.getAllRequestsAfterCursor(reader.getId(), null, 2);
+
+        assertThat(refreshed.getContent().stream().map(ShortRequestResponse::getDescription).toList(), contains("New", "Old"));
+    }
+
+    @Test
+    void firstPage_WhenOwnRequestsFillHead_ShouldFallBackToDatabase() {
+        LocalDateTime now = LocalDateTime.now();
+        requestRepository.save(ItemRequest.builder().description("Other").requester(author).created(now.minusDays(1)).build());
+        for (int i = 0; i < 4; i++) {
+            requestRepository.save(ItemRequest.builder().description("Own " + i).requester(reader).created(now.minusHours(i)).build());
+        }
+
+        RequestCursorPage page = requestService.getAllRequestsAfterCursor(reader.getId(), null, 2);
+
+        assertThat(page.getContent().stream().map(ShortRequestResponse::getDescription).toList(), contains("Other"));
+        assertThat(page.getNextCursor(), nullValue());
+    }
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,126 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.request.match;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dto.CreateItemDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.RequestRepository;
+import ru.practicum.shareit.request.RequestService;
+import ru.practicum.shareit.request.dto.CreateRequestDto;
+import ru.practicum.shareit.request.dto.RequestMatchDto;
+import ru.practicum.shareit.request.dto.ShortRequestResponse;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Один поток подбора, чтобы повторный submit выполнялся строго после подбора из createRequest.
+ */
+@SpringBootTest(properties = "shareit.requests.matching.threads=1")
+@ActiveProfiles("test")
+class RequestMatcherTest {
+
+    @Autowired
+    private RequestMatcher matcher;
+
+    @Autowired
+    private ItemMatchIndex matchIndex;
+
+    @Autowired
+    private RequestMatchRepository matchRepository;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User requester;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        requester = userRepository.save(new User(null, "Requester", "requester@email.com"));
+        owner = userRepository.save(new User(null, "Owner", "owner@email.com"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        matchIndex.untrack(itemRepository.findAll().stream().map(Item::getId).toList());
+        matchRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void createRequest_ShouldMatchOtherOwnersAvailableItemsRankedByRelevance() {
+        ItemDto drillInName = createItem(owner, "Дрель ударная", "Сверлит бетон", true);
+        ItemDto drillInDescription = createItem(owner, "Набор бит", "Подходит к любой дрели", true);
+        createItem(owner, "Дрель старая", "Не работает", false);
+        createItem(owner, "Палатка", "Туристическая", true);
+        createItem(requester, "Дрель своя", "Своя", true);
+
+        ShortRequestResponse request = createRequest("Нужна дрель для ремонта");
+        matcher.submit(request.getId(), "Нужна дрель для ремонта", requester.getId()).join();
+
+        List<RequestMatchDto> matches = requestService.getRequestMatches(request.getId());
+
+        assertThat(matches.stream().map(RequestMatchDto::getItemId).toList(), contains(drillInName.getId(), drillInDescription.getId()));
+        assertThat(matches.get(0), allOf(hasProperty("name", is("Дрель ударная")), hasProperty("ownerId", is(owner.getId()))));
+        assertThat(matches.get(0).getScore(), greaterThan(matches.get(1).getScore()));
+    }
+
+    @Test
+    void getRequestMatches_ShouldHideItemsThatBecameUnavailableAndRejectUnknownRequest() {
+        ItemDto tent = createItem(owner, "Палатка двухместная", "Туристическая", true);
+        ShortRequestResponse request = createRequest("Ищу палатку на выходные");
+        matcher.submit(request.getId(), "Ищу палатку на выходные", requester.getId()).join();
+        assertThat(requestService.getRequestMatches(request.getId()), hasSize(1));
+
+        Item stored = itemRepository.findById(tent.getId()).orElseThrow();
+        stored.setAvailable(false);
+        itemRepository.save(stored);
+
+        assertThat(requestService.getRequestMatches(request.getId()), empty());
+        assertThrows(NotFoundException.class, () -> requestService.getRequestMatches(request.getId() + 1000));
+    }
+
+    private ItemDto createItem(User itemOwner, String name, String description, boolean available) {
+        CreateItemDto dto = new CreateItemDto();
+        dto.setName(name);
+        dto.setDescription(description);
+        dto.setAvailable(available);
+        return itemService.createItem(itemOwner.getId(), dto);
+    }
+
+    private ShortRequestResponse createRequest(String description) {
+        CreateRequestDto dto = new CreateRequestDto();
+        dto.setDescription(description);
+        return requestService.createRequest(requester.getId(), dto);
+    }
+}
+// CHECKSTYLE:ON
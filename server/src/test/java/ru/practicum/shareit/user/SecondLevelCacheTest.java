@@ -0,0 +1,91 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.user;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.shareit.StatementCountTestBase;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.purge.UserPurgeWorker;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+
+/**
+ * Вставка с IDENTITY в кэш второго уровня не попадает, поэтому сущности сначала читаются.
+ */
+class SecondLevelCacheTest extends StatementCountTestBase {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserPurgeWorker purgeWorker;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findUserById_ShouldBeServedFromCache() {
+        User user = userRepository.save(new User(null, "Cached", "cached@email.com"));
+        userService.findUserById(user.getId());
+        Statistics statistics = startCounting();
+
+        userService.findUserById(user.getId());
+        userService.findUserById(user.getId());
+
+        assertThat(statistics.getPrepareStatementCount(), is(0L));
+        assertThat(statistics.getDomainDataRegionStatistics("user").getHitCount(), is(2L));
+    }
+
+    @Test
+    void cacheRegions_ShouldBeExportedAsMeters() {
+        User user = userRepository.save(new User(null, "Metered", "metered@email.com"));
+        userService.findUserById(user.getId());
+        userService.findUserById(user.getId());
+
+        FunctionCounter hits = meterRegistry.find("hibernate.second.level.cache.requests").tags("region", "user", "result", "hit").functionCounter();
+
+        assertThat(hits, notNullValue());
+        assertThat(hits.count(), greaterThanOrEqualTo(1.0));
+    }
+
+    @Test
+    void deleteUser_ShouldEvictUserAndBulkDeletedItems() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@email.com"));
+        Item item = itemRepository.save(Item.builder().name("Дрель").description("Ударная").available(true).owner(owner).build());
+        userRepository.findById(owner.getId());
+        itemRepository.findById(item.getId());
+        assertThat(entityManagerFactory.getCache().contains(User.class, owner.getId()), is(true));
+        assertThat(entityManagerFactory.getCache().contains(Item.class, item.getId()), is(true));
+
+        userService.deleteUser(owner.getId());
+        // READ_WRITE оставляет в регионе мягкую блокировку до очистки, поэтому проверяется, что надгробие не читается из кэша
+        assertThat(userRepository.findById(owner.getId()).isPresent(), is(false));
+        purgeWorker.submit(owner.getId()).join();
+
+        assertThat(entityManagerFactory.getCache().contains(User.class, owner.getId()), is(false));
+        assertThat(entityManagerFactory.getCache().contains(Item.class, item.getId()), is(false));
+        assertThat(itemRepository.findById(item.getId()).isPresent(), is(false));
+    }
+}
+// CHECKSTYLE:ON
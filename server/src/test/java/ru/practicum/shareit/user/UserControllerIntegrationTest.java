@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -14,6 +15,7 @@ import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.user.model.User;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -66,6 +68,28 @@ class UserControllerIntegrationTest {
         mockMvc.perform(get("/users/999")).andExpect(status().isNotFound());
     }
 
+    @Test
+    void findUserById_WhenUserNotExists_ShouldNotSendCacheHeaders() throws Exception {
+        mockMvc.perform(get("/users/999"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(header().doesNotExist(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void findUserById_WithMatchingEtag_ShouldReturnNotModifiedWithCacheHeaders() throws Exception {
+        String etag = mockMvc.perform(get("/users/{id}", savedUser.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=10"))
+                .andExpect(header().string(HttpHeaders.VARY, "X-Sharer-User-Id"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/users/{id}", savedUser.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=10"));
+    }
+
     @Test
     void updateUser_ShouldUpdateAndReturnUser() throws Exception {
         mockMvc.perform(patch("/users/{id}", savedUser.getId()).contentType(MediaType.APPLICATION_JSON).content(createUserJson("Updated Name", "updated@email.com"))).andExpect(status().isOk()).andExpect(jsonPath("$.name").value("Updated Name")).andExpect(jsonPath("$.email").value("updated@email.com"));
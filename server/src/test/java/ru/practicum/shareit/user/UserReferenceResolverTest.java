@@ -0,0 +1,67 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.user;
+
+import org.hibernate.Hibernate;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import ru.practicum.shareit.StatementCountTestBase;
+import ru.practicum.shareit.user.dto.CreateUserDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Пользователи создаются через сервис: id попадает в карту известных только по коммиту createUser.
+ */
+class UserReferenceResolverTest extends StatementCountTestBase {
+
+    @Autowired
+    private UserReferenceResolver userReferences;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findReference_ForCreatedUser_ShouldNotQueryDatabase() {
+        UserDto created = userService.createUser(createDto("known@email.com"));
+        Statistics statistics = startCounting();
+
+        User reference = userReferences.findReference(created.getId()).orElseThrow();
+
+        assertThat(statistics.getPrepareStatementCount(), is(0L));
+        assertThat(Hibernate.isInitialized(reference), is(false));
+        assertThat(reference.getId(), is(created.getId()));
+    }
+
+    @Test
+    void findReference_ForUnknownOrDeletedUser_ShouldBeEmpty() {
+        User saved = userRepository.save(new User(null, "Saved", "saved@email.com"));
+
+        assertThat(userReferences.findReference(saved.getId()).isPresent(), is(true));
+        assertThat(userReferences.findReference(saved.getId() + 1000).isPresent(), is(false));
+
+        userService.deleteUser(saved.getId());
+
+        assertThat(userReferences.findReference(saved.getId()).isPresent(), is(false));
+    }
+
+    private static CreateUserDto createDto(String email) {
+        CreateUserDto dto = new CreateUserDto();
+        dto.setName("User");
+        dto.setEmail(email);
+        return dto;
+    }
+}
+// CHECKSTYLE:ON
@@ -6,20 +6,26 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import ru.practicum.shareit.booking.BookingRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
-import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.user.dto.CreateUserDto;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.email.UserEmailIndex;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.purge.UserPurgeWorker;
 import ru.practicum.shareit.validator.CentralValidator;
 
+import java.sql.SQLException;
 import java.util.Optional;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -32,9 +38,11 @@ public class UserServiceImplTest {
     @Mock
     private CentralValidator centralValidator;
     @Mock
-    private BookingRepository bookingRepository;
+    private UserEmailIndex emailIndex;
     @Mock
-    private ItemRepository itemRepository;
+    private UserReferenceResolver userReferences;
+    @Mock
+    private UserPurgeWorker purgeWorker;
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -75,5 +83,27 @@ public class UserServiceImplTest {
         assertThat(exception.getMessage(), is("отсутствует Id пользователя"));
     }
 
+
+    @Test
+    void createUser_WhenEmailFilterSaysFree_ShouldSkipLookup() {
+        CreateUserDto dto = CreateUserDto.builder().name("New User").email("new@email.com").build();
+        when(emailIndex.mightBeTaken("new@email.com")).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class))).thenReturn(new User(1L, "New User", "new@email.com"));
+
+        UserDto result = userService.createUser(dto);
+
+        assertThat(result.getId(), is(1L));
+        verify(userRepository, never()).existsByEmail("new@email.com");
+    }
+
+    @Test
+    void createUser_WhenUniqueConstraintViolated_ShouldThrowConflictException() {
+        CreateUserDto dto = CreateUserDto.builder().name("Racer").email("race@email.com").build();
+        when(emailIndex.mightBeTaken("race@email.com")).thenReturn(false);
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException("insert",
+                new SQLException("duplicate key value violates unique constraint \"uq_user_email\"")));
+
+        assertThrows(ConflictException.class, () -> userService.createUser(dto));
+    }
 }
 // CHECKSTYLE:ON
\ No newline at end of file
@@ -0,0 +1,54 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.user.email;
+
+import org.junit.jupiter.api.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmailBloomFilterTest {
+
+    @Test
+    void mightContain_ShouldHaveNoFalseNegatives() {
+        EmailBloomFilter filter = new EmailBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i + "@mail.ru");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("user" + i + "@mail.ru"), is(true));
+        }
+    }
+
+    @Test
+    void mightContain_ShouldKeepFalsePositiveRateNearConfigured() {
+        EmailBloomFilter filter = new EmailBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i + "@mail.ru");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i + "@mail.ru")) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives / 100_000.0, lessThan(0.02));
+    }
+
+    @Test
+    void mightContain_OnEmptyFilter_ShouldBeFalse() {
+        EmailBloomFilter filter = new EmailBloomFilter(100, 0.01);
+
+        assertThat(filter.mightContain("user@mail.ru"), is(false));
+        assertThat(filter.hashCount(), greaterThan(0));
+    }
+
+    @Test
+    void constructor_WithInvalidRate_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new EmailBloomFilter(100, 1.5));
+    }
+}
+// CHECKSTYLE:ON
@@ -0,0 +1,194 @@
+// CHECKSTYLE:OFF
+package ru.practicum.shareit.user.purge;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.CreateBookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.RequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserService;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Пачка из двух строк, чтобы каждая фаза очистки проходила несколько транзакций.
+ */
+@SpringBootTest(properties = "shareit.users.purge.batch-size=2")
+@ActiveProfiles("test")
+class UserPurgeWorkerTest {
+
+    @Autowired
+    private UserPurgeWorker purgeWorker;
+
+    @Autowired
+    private UserPurgeRepository purgeRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemSearchEngine searchEngine;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void tearDown() {
+        purgeRepository.deleteAll();
+        commentRepository.deleteAll();
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void deleteUser_ShouldHideUserAtOnceAndPurgeDataInBatches() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = userRepository.save(new User(null, "Owner", "owner@email.com"));
+        User booker = userRepository.save(new User(null, "Booker", "booker@email.com"));
+        for (int i = 0; i < 3; i++) {
+            Item item = itemRepository.save(Item.builder().name("Вещь " + i).description("Описание").available(true).owner(owner).build());
+            bookingRepository.save(Booking.builder().startDate(now.minusDays(3)).endDate(now.minusDays(2)).item(item).booker(booker).status(BookingStatus.APPROVED).build());
+            commentRepository.save(Comment.builder().text("Отзыв " + i).item(item).author(booker).created(now).build());
+        }
+        ItemRequest request = requestRepository.save(ItemRequest.builder().description("Нужна дрель").requester(owner).created(now).build());
+        Item answer = itemRepository.save(Item.builder().name("Дрель").description("Ударная").available(true).owner(booker).request(request).build());
+
+        userService.deleteUser(owner.getId());
+
+        assertThrows(NotFoundException.class, () -> userService.findUserById(owner.getId()));
+        purgeWorker.submit(owner.getId()).join();
+
+        assertThat(bookingRepository.count(), is(0L));
+        assertThat(commentRepository.count(), is(0L));
+        assertThat(requestRepository.count(), is(0L));
+        assertThat(itemRepository.findAll(), contains(hasProperty("id", is(answer.getId()))));
+        assertThat(itemRepository.findById(answer.getId()).orElseThrow().getRequest(), nullValue());
+        assertThat(purgeRepository.count(), is(0L));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Long.class, owner.getId()), is(0L));
+        assertThat(userRepository.findById(booker.getId()).isPresent(), is(true));
+    }
+
+    @Test
+    void resumePending_ShouldContinueFromSavedPhase() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@email.com"));
+        itemRepository.save(Item.builder().name("Палатка").description("Туристическая").available(true).owner(owner).build());
+        userRepository.deleteById(owner.getId());
+        LocalDateTime now = LocalDateTime.now();
+        purgeRepository.save(UserPurge.builder().userId(owner.getId()).phase(UserPurgePhase.ITEMS).deletedRows(5).requestedAt(now).updatedAt(now).build());
+
+        purgeWorker.resumePending();
+        purgeWorker.submit(owner.getId()).join();
+
+        assertThat(itemRepository.count(), is(0L));
+        assertThat(purgeRepository.findById(owner.getId()).isPresent(), is(false));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Long.class, owner.getId()), is(0L));
+    }
+
+    @Test
+    void deleteUser_ShouldMakeOwnerItemsUnavailableWithTheTombstone() {
+        User owner = userRepository.save(new User(null, "Owner", "owner@email.com"));
+        User booker = userRepository.save(new User(null, "Booker", "booker@email.com"));
+        Item item = itemRepository.save(Item.builder().name("Палатка").description("Туристическая").available(true).owner(owner).build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        // откат в конце не даёт очистке стартовать, поэтому видно состояние между надгробием и фазой ITEMS
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.deleteUser(owner.getId());
+
+            assertThat(itemRepository.findById(item.getId()).orElseThrow().getAvailable(), is(false));
+            assertThat(searchEngine.search("палатка", 0, 10), empty());
+            assertThrows(NotFoundException.class, () -> itemService.findItemById(booker.getId(), item.getId()));
+            assertThrows(NotFoundException.class, () -> itemService.findItemById(owner.getId(), item.getId()));
+            assertThrows(ValidationException.class, () -> bookingService.createBooking(booker.getId(),
+                    CreateBookingDto.builder().itemId(item.getId()).start(start).end(start.plusDays(1)).build()));
+            status.setRollbackOnly();
+        });
+    }
+
+    @Test
+    void submit_WhenPurgeFinishesImmediately_ShouldNotLeaveRunningEntry() {
+        User deleted = userRepository.save(new User(null, "Deleted", "deleted@email.com"));
+
+        // без записи user_purge задача завершается сразу, раньше, чем submit успел бы вернуть управление
+        for (int i = 0; i < 50; i++) {
+            purgeWorker.submit(deleted.getId()).join();
+
+            assertThat(meterRegistry.get("shareit.users.purge.running").gauge().value(), is(0.0));
+        }
+    }
+
+    @Test
+    void purge_ShouldRepeatPhasesForRowsWrittenAfterTombstone() {
+        LocalDateTime now = LocalDateTime.now();
+        User owner = userRepository.save(new User(null, "Owner", "owner@email.com"));
+        User deleted = userRepository.save(new User(null, "Deleted", "deleted@email.com"));
+        Item item = itemRepository.save(Item.builder().name("Дрель").description("Ударная").available(true).owner(owner).build());
+        userRepository.deleteById(deleted.getId());
+        // так пишет экземпляр, который ещё помнит id: надгробие удовлетворяет внешним ключам
+        bookingRepository.save(Booking.builder().startDate(now.minusDays(3)).endDate(now.minusDays(2)).item(item).booker(deleted).status(BookingStatus.APPROVED).build());
+        commentRepository.save(Comment.builder().text("Поздний отзыв").item(item).author(deleted).created(now).build());
+        purgeRepository.save(UserPurge.builder().userId(deleted.getId()).phase(UserPurgePhase.USER).deletedRows(3).requestedAt(now).updatedAt(now).build());
+
+        purgeWorker.submit(deleted.getId()).join();
+
+        assertThat(bookingRepository.count(), is(0L));
+        assertThat(commentRepository.count(), is(0L));
+        assertThat(itemRepository.findById(item.getId()).isPresent(), is(true));
+        assertThat(purgeRepository.count(), is(0L));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE id = ?", Long.class, deleted.getId()), is(0L));
+    }
+}
+// CHECKSTYLE:ON